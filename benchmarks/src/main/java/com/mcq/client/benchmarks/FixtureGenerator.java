@@ -0,0 +1,163 @@
+package com.mcq.client.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.mcq.client.lib.Models.ClassroomDTO;
+import com.mcq.client.lib.Models.StudentResultDTO;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+import com.mcq.client.lib.Models.User;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes the benchmark fixtures. All data is seeded, so regenerating only
+ * changes their content when this generator changes:
+ *     java -cp benchmarks/target/benchmarks.jar com.mcq.client.benchmarks.FixtureGenerator benchmarks/src/main/resources/fixtures
+ */
+public class FixtureGenerator {
+
+    private static final String[] OPTIONS = {"A", "B", "C", "D"};
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "benchmarks/src/main/resources/fixtures");
+        Files.createDirectories(dir);
+
+        writeQuestionPdf(dir.resolve("questions-letter.pdf"), PDRectangle.LETTER, 4);
+        writeQuestionPdf(dir.resolve("questions-a4.pdf"), PDRectangle.A4, 4);
+        writeScannedPdf(dir.resolve("scanned-a4.pdf"), 1);
+
+        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+        Files.writeString(dir.resolve("results-small.json"), gson.toJson(results(30, 20, new Random(1))), StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("results-large.json"), gson.toJson(results(300, 60, new Random(2))), StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("classrooms.json"), gson.toJson(classrooms(40, 35, new Random(3))), StandardCharsets.UTF_8);
+        System.out.println("Fixtures written to " + dir.toAbsolutePath());
+    }
+
+    // Typical typeset question sheet: text, answer bubbles and rules
+    private static void writeQuestionPdf(Path file, PDRectangle size, int pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+            int question = 1;
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(size);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    float y = size.getHeight() - 60;
+                    while (y > 120) {
+                        content.beginText();
+                        content.setFont(bold, 12);
+                        content.newLineAtOffset(50, y);
+                        content.showText(question + ". Which of the following best describes the result of the procedure?");
+                        content.setFont(regular, 11);
+                        for (String option : OPTIONS) {
+                            content.newLineAtOffset(0, -18);
+                            content.showText(option + ")  The measured value changes in proportion to the applied input " + option);
+                        }
+                        content.endText();
+                        for (int o = 0; o < OPTIONS.length; o++) {
+                            float cy = y - 18 * (o + 1) + 4;
+                            content.addRect(size.getWidth() - 80, cy - 5, 10, 10);
+                        }
+                        content.stroke();
+                        content.moveTo(50, y - 95);
+                        content.lineTo(size.getWidth() - 50, y - 95);
+                        content.stroke();
+                        y -= 120;
+                        question++;
+                    }
+                }
+            }
+            document.setDocumentId(1L);
+            document.save(file.toFile());
+        }
+    }
+
+    // Scanner output: one full-page JPEG per page, the expensive case for rendering
+    private static void writeScannedPdf(Path file, int pages) throws IOException {
+        PDRectangle size = PDRectangle.A4;
+        Random random = new Random(4);
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                BufferedImage scan = new BufferedImage(1240, 1754, BufferedImage.TYPE_BYTE_GRAY);
+                Graphics2D g = scan.createGraphics();
+                g.setColor(new Color(245, 245, 240));
+                g.fillRect(0, 0, scan.getWidth(), scan.getHeight());
+                g.setColor(Color.DARK_GRAY);
+                g.setFont(new Font(Font.SERIF, Font.PLAIN, 22));
+                for (int line = 0; line < 60; line++) {
+                    g.drawString("Question " + (p * 60 + line + 1) + ": handwritten notes and printed text "
+                            + Long.toHexString(random.nextLong()), 90, 110 + line * 26);
+                }
+                for (int speck = 0; speck < 4000; speck++) {
+                    g.fillRect(random.nextInt(scan.getWidth()), random.nextInt(scan.getHeight()), 1, 1);
+                }
+                g.dispose();
+
+                PDPage page = new PDPage(size);
+                document.addPage(page);
+                PDImageXObject image = JPEGFactory.createFromImage(document, scan, 0.6f);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.drawImage(image, 0, 0, size.getWidth(), size.getHeight());
+                }
+            }
+            document.setDocumentId(1L);
+            document.save(file.toFile());
+        }
+    }
+
+    private static TeacherResultsDTO results(int students, int questions, Random random) {
+        List<String> correct = new ArrayList<>(questions);
+        for (int q = 0; q < questions; q++) {
+            correct.add(OPTIONS[random.nextInt(OPTIONS.length)]);
+        }
+        List<StudentResultDTO> submissions = new ArrayList<>(students);
+        for (int s = 0; s < students; s++) {
+            List<String> answers = new ArrayList<>(questions);
+            int score = 0;
+            for (int q = 0; q < questions; q++) {
+                int roll = random.nextInt(10);
+                String answer = roll < 6 ? correct.get(q) : roll < 9 ? OPTIONS[random.nextInt(OPTIONS.length)] : "";
+                if (answer.equals(correct.get(q))) score++;
+                answers.add(answer);
+            }
+            submissions.add(new StudentResultDTO(user(s, "STUDENT"), answers, correct, score, questions,
+                    "submissions/student" + s + ".pdf"));
+        }
+        return new TeacherResultsDTO(correct, questions, submissions);
+    }
+
+    private static List<ClassroomDTO> classrooms(int count, int studentsEach, Random random) {
+        List<ClassroomDTO> classrooms = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            List<String> students = new ArrayList<>(studentsEach);
+            for (int s = 0; s < studentsEach; s++) {
+                students.add("student" + random.nextInt(5000));
+            }
+            classrooms.add(new ClassroomDTO(String.format("C%05d", c), "Classroom " + c + " - Section " + (char) ('A' + c % 6),
+                    user(c, "TEACHER"), students));
+        }
+        return classrooms;
+    }
+
+    private static User user(int index, String role) {
+        String prefix = role.toLowerCase();
+        return new User("First" + index, "Last" + index, prefix + index + "@school.example", prefix + index, role);
+    }
+}
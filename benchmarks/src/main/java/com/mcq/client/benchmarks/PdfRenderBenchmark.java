@@ -0,0 +1,54 @@
+package com.mcq.client.benchmarks;
+
+import com.mcq.client.lib.PdfDocumentSession;
+import com.mcq.client.lib.PdfUtil;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page rendering across page sizes and target widths. {@code scaledPage}
+ * is the one-shot {@link PdfUtil} path that parses the document every call;
+ * {@code sessionPage} reuses an open {@link PdfDocumentSession} like the
+ * test viewer does.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfRenderBenchmark {
+
+    @Param({"questions-letter.pdf", "questions-a4.pdf", "scanned-a4.pdf"})
+    public String fixture;
+
+    @Param({"600", "1200", "2400"})
+    public int width;
+
+    private byte[] pdf;
+    private PdfDocumentSession session;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        pdf = Fixtures.load(fixture);
+        session = new PdfDocumentSession(pdf);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        session.close();
+    }
+
+    @Benchmark
+    public ImageIcon scaledPage() {
+        return PdfUtil.getScaledPdfPage(pdf, 0, width);
+    }
+
+    @Benchmark
+    public ImageIcon sessionPage() {
+        return session.getScaledPage(0, width);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mcq.client.benchmarks;
+
+import com.google.gson.Gson;
+import com.mcq.client.lib.AnswerMatrix;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+import com.mcq.client.panels.SubmissionsTableModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the teacher's submissions table from decoded results, and one
+ * full pass over every cell as a first paint of the table would do.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TableModelBenchmark {
+
+    @Param({"results-small.json", "results-large.json"})
+    public String resultsFixture;
+
+    private TeacherResultsDTO results;
+    private SubmissionsTableModel model;
+
+    @Setup(Level.Trial)
+    public void load() {
+        String json = new String(Fixtures.load(resultsFixture), StandardCharsets.UTF_8);
+        results = new Gson().fromJson(json, TeacherResultsDTO.class);
+        model = new SubmissionsTableModel(AnswerMatrix.from(results));
+    }
+
+    @Benchmark
+    public SubmissionsTableModel build() {
+        return new SubmissionsTableModel(AnswerMatrix.from(results));
+    }
+
+    @Benchmark
+    public void readAllCells(Blackhole blackhole) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                blackhole.consume(model.getValueAt(row, column));
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.mcq.client.benchmarks;
+
+import com.mcq.client.lib.TransportConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares transport settings against an in-process stub that answers every
+ * request with a small test JSON document. The JDK stub only speaks HTTP/1.1,
+ * so the HTTP_2 rows measure the cost of the refused upgrade; multiplexing
+ * gains need an h2-capable server.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransportBenchmark {
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header/body writes stall on delayed ACKs (~40 ms per request)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final byte[] TEST_JSON = """
+            {"id":1,"testname":"midterm","questionsPdfPath":"midterm.pdf","status":"ACTIVE","questionCount":40}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public String version;
+
+    @Param({"virtual", "fixed", "default"})
+    public String executor;
+
+    @Param({"16"})
+    public int burstSize;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().transferTo(java.io.OutputStream.nullOutputStream());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, TEST_JSON.length);
+                exchange.getResponseBody().write(TEST_JSON);
+            }
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/classrooms/c/tests/midterm");
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = newClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        client.close();
+        clientExecutor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    HttpClient newClient() {
+        TransportConfig config = new TransportConfig(HttpClient.Version.valueOf(version), executor, 8,
+                Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(120), true);
+        return config.newClientBuilder(clientExecutor).build();
+    }
+
+    HttpRequest get() {
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] singleGet() throws Exception {
+        return client.send(get(), HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    // Mirrors a page-prefetch or roster burst: many small GETs issued at once
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void burst(Blackhole blackhole) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[burstSize];
+        for (int i = 0; i < burstSize; i++) {
+            responses[i] = client.sendAsync(get(), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenAccept(response -> blackhole.consume(response.body()));
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+
+    /**
+     * First request on a brand new client, with and without a HEAD pre-warm
+     * beforehand; the difference is what the login screen pre-warm saves.
+     */
+    @State(Scope.Thread)
+    public static class FreshClient {
+        @Param({"false", "true"})
+        public boolean prewarmed;
+
+        HttpClient client;
+
+        @Setup(Level.Invocation)
+        public void open(TransportBenchmark benchmark) throws Exception {
+            client = benchmark.newClient();
+            if (prewarmed) {
+                client.send(HttpRequest.newBuilder(benchmark.uri)
+                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                        .build(), HttpResponse.BodyHandlers.discarding());
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = 1)
+    @Measurement(iterations = 50, batchSize = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] firstRequest(FreshClient fresh) throws Exception {
+        return fresh.client.send(get(), HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
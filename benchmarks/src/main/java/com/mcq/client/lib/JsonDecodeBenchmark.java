@@ -0,0 +1,57 @@
+package com.mcq.client.lib;
+
+import com.google.gson.reflect.TypeToken;
+import com.mcq.client.benchmarks.Fixtures;
+import com.mcq.client.lib.Models.ClassroomDTO;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding realistic response bodies through ApiClient's own path: content
+ * decoding, then Gson streaming straight off the body. Lives in this package
+ * because that path is package-private.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonDecodeBenchmark {
+
+    private static final TypeToken<TeacherResultsDTO> RESULTS = TypeToken.get(TeacherResultsDTO.class);
+    private static final TypeToken<List<ClassroomDTO>> CLASSROOMS = new TypeToken<>() {};
+
+    @Param({"results-small.json", "results-large.json", "classrooms.json"})
+    public String payload;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ApiClient client;
+    private TypeToken<?> type;
+    private HttpHeaders headers;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        client = ApiClient.newSession("http://localhost:8080", HttpClient.newHttpClient());
+        type = payload.startsWith("classrooms") ? CLASSROOMS : RESULTS;
+        byte[] json = Fixtures.load(payload);
+        body = "gzip".equals(encoding) ? ContentEncoding.gzip(json) : json;
+        headers = HttpHeaders.of("gzip".equals(encoding) ? Map.of("Content-Encoding", List.of("gzip")) : Map.of(), (name, value) -> true);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return client.decode(200, -1, ContentEncoding.decode(headers, new ByteArrayInputStream(body)), type);
+    }
+}
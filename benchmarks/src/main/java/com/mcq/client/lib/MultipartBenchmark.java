@@ -0,0 +1,95 @@
+package com.mcq.client.lib;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Producing the createTest upload body with ApiClient.ofMimeMultipartData
+ * from a large file on disk, for a 60 question answer key. The body is
+ * drained by a subscriber that only counts bytes, so this measures the
+ * encoder and not the network. Lives in this package because the encoder
+ * is package-private.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MultipartBenchmark {
+
+    private static final List<String> CORRECT_ANSWERS = IntStream.range(0, 60)
+            .mapToObj(i -> String.valueOf("ABCD".charAt(i % 4)))
+            .toList();
+
+    @Param({"1", "16", "64"})
+    public int fileMegabytes;
+
+    @Param({"false", "true"})
+    public boolean progress;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("multipart-bench", ".pdf");
+        byte[] chunk = new byte[1 << 20];
+        new Random(5).nextBytes(chunk);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < fileMegabytes; i++) {
+                out.write(chunk);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long upload() throws Exception {
+        MultipartBodyPublisher body = ApiClient.ofMimeMultipartData("midterm", file.toFile(), CORRECT_ANSWERS,
+                "Boundary-bench", progress ? (sent, total) -> {} : null);
+        return drain(body);
+    }
+
+    private static long drain(MultipartBodyPublisher body) throws Exception {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        body.subscribe(new Flow.Subscriber<>() {
+            private long bytes = 0;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                bytes += item.remaining();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(bytes);
+            }
+        });
+        return done.get();
+    }
+}
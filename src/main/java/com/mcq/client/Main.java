@@ -1,12 +1,22 @@
 package com.mcq.client;
 
+import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.AppConfig;
 import com.mcq.client.lib.AuthService;
+import com.mcq.client.lib.Metrics;
+import com.mcq.client.lib.PdfWarmup;
+import com.mcq.client.lib.StartupTimings;
 import com.mcq.client.panels.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.util.concurrent.CompletableFuture;
+
 public class Main extends JFrame {
 
     private CardLayout cardLayout;
@@ -58,47 +68,80 @@ public class Main extends JFrame {
         cardLayout = new CardLayout();
         mainPanel = new JPanel(cardLayout);
 
+        // Only the login screen is built up front; everything else is created on first use
         loginPanel = new LoginPanel(this);
-        registerPanel = new RegisterPanel(this);
-
         mainPanel.add(loginPanel, "LOGIN");
-        mainPanel.add(registerPanel, "REGISTER");
 
         add(mainPanel);
 
-        AuthService.getInstance().addPropertyChangeListener(evt -> {
-            if ("user".equals(evt.getPropertyName())) {
-                if (studentViewPanel != null) mainPanel.remove(studentViewPanel);
-                if (teacherDashboardPanel != null) mainPanel.remove(teacherDashboardPanel);
-                if (classroomDetailPanel != null) mainPanel.remove(classroomDetailPanel);
-                if (testResultsPanel != null) mainPanel.remove(testResultsPanel);
-                if (testViewerPanel != null) {
-                    testViewerPanel.stopPolling();
-                    mainPanel.remove(testViewerPanel);
-                }
-
-                studentViewPanel = null;
-                teacherDashboardPanel = null;
-                classroomDetailPanel = null;
-                testResultsPanel = null;
-                testViewerPanel = null;
-
-                if (evt.getNewValue() != null) {
-                    showDashboard();
-                } else {
-                    showLogin();
-                }
+        // Hidden diagnostics view for support sessions; not available while a test is being taken
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_D,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.ALT_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        getRootPane().getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (testViewerPanel != null && testViewerPanel.isShowing()) return;
+                DiagnosticsPanel.showDialog(Main.this);
             }
         });
+        Metrics.getInstance().startEdtLagProbe(AppConfig.getInstance().getLong("metrics.edt.probe.ms", 250));
+
+        AuthService.getInstance().addPropertyChangeListener(this::onUserChanged);
 
         showLogin();
     }
 
+    private void onUserChanged(PropertyChangeEvent evt) {
+        // Login completes on a worker thread; the card switch belongs on the EDT
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> onUserChanged(evt));
+            return;
+        }
+        if ("user".equals(evt.getPropertyName())) {
+            if (studentViewPanel != null) mainPanel.remove(studentViewPanel);
+            if (teacherDashboardPanel != null) mainPanel.remove(teacherDashboardPanel);
+            if (classroomDetailPanel != null) {
+                classroomDetailPanel.dispose();
+                mainPanel.remove(classroomDetailPanel);
+            }
+            if (testResultsPanel != null) {
+                testResultsPanel.dispose();
+                mainPanel.remove(testResultsPanel);
+            }
+            if (testViewerPanel != null) {
+                testViewerPanel.dispose();
+                mainPanel.remove(testViewerPanel);
+            }
+
+            studentViewPanel = null;
+            teacherDashboardPanel = null;
+            classroomDetailPanel = null;
+            testResultsPanel = null;
+            testViewerPanel = null;
+
+            if (evt.getNewValue() != null) {
+                showDashboard();
+            } else {
+                showLogin();
+            }
+        }
+    }
+
+    // Opens the API connection once the login screen is up, off the event thread
+    private static void prewarmConnection() {
+        ApiClient.getInstance().prewarm();
+        StartupTimings.mark("API client ready");
+    }
+
     public void showLogin() {
         cardLayout.show(mainPanel, "LOGIN");
     }
 
     public void showRegister() {
+        if (registerPanel == null) {
+            registerPanel = new RegisterPanel(this);
+            mainPanel.add(registerPanel, "REGISTER");
+        }
         cardLayout.show(mainPanel, "REGISTER");
     }
 
@@ -124,6 +167,7 @@ public class Main extends JFrame {
 
     public void showClassroomDetail(String classroomCode) {
         if (classroomDetailPanel != null) {
+            classroomDetailPanel.dispose();
             mainPanel.remove(classroomDetailPanel);
         }
         classroomDetailPanel = new ClassroomDetailPanel(this, classroomCode);
@@ -133,9 +177,10 @@ public class Main extends JFrame {
 
     public void showTestViewer(String classroomCode, String testname) {
         if (testViewerPanel != null) {
-            testViewerPanel.stopPolling();
+            testViewerPanel.dispose();
             mainPanel.remove(testViewerPanel);
         }
+        DiagnosticsPanel.closeDialog();
         testViewerPanel = new TestViewerPanel(this, classroomCode, testname);
         mainPanel.add(testViewerPanel, "TEST_VIEWER");
         cardLayout.show(mainPanel, "TEST_VIEWER");
@@ -143,6 +188,7 @@ public class Main extends JFrame {
 
     public void showTestResults(String classroomCode, String testname) {
         if (testResultsPanel != null) {
+            testResultsPanel.dispose();
             mainPanel.remove(testResultsPanel);
         }
         testResultsPanel = new TestResultsPanel(this, classroomCode, testname);
@@ -158,6 +204,41 @@ public class Main extends JFrame {
     }
 
     public static void main(String[] args) {
+        StartupTimings.mark("main entered");
+
+        SwingUtilities.invokeLater(() -> {
+            installLookAndFeel();
+            StartupTimings.mark("look and feel installed");
+
+            Main main = new Main();
+            main.setVisible(true);
+            SwingUtilities.invokeLater(() -> {
+                StartupTimings.mark("login screen shown");
+                CompletableFuture.runAsync(Main::prewarmConnection).exceptionally(error -> {
+                    System.err.println("Connection pre-warm failed: " + error.getMessage());
+                    return null;
+                });
+                if (AppConfig.getInstance().getBoolean("startup.pdf.warmup", true)) {
+                    PdfWarmup.start();
+                }
+                // Queued behind input events, so it only runs while the user is idle on the login screen
+                SwingUtilities.invokeLater(Main::preloadComponents);
+            });
+        });
+    }
+
+    // Loads the UI delegates the dashboards and test views use, so the first screen after login builds faster
+    private static void preloadComponents() {
+        new JTable();
+        new JScrollPane();
+        new JComboBox<String>();
+        new JProgressBar();
+        new JTextArea();
+        new JSplitPane();
+        StartupTimings.mark("components preloaded");
+    }
+
+    private static void installLookAndFeel() {
         try {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
                 if ("Nimbus".equals(info.getName())) {
@@ -175,7 +256,5 @@ public class Main extends JFrame {
         UIManager.put("ComboBox.font", new Font("SansSerif", Font.PLAIN, 14));
         UIManager.put("Table.font", new Font("SansSerif", Font.PLAIN, 14));
         UIManager.put("TableHeader.font", new Font("SansSerif", Font.BOLD, 12));
-
-        SwingUtilities.invokeLater(() -> new Main().setVisible(true));
     }
 }
\ No newline at end of file
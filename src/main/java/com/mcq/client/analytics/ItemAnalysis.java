@@ -0,0 +1,108 @@
+package com.mcq.client.analytics;
+
+import com.mcq.client.lib.AnswerMatrix;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+
+import java.util.stream.IntStream;
+
+/**
+ * Classical test theory item analysis over an {@link AnswerMatrix}.
+ * Student totals are computed once, then every question is analysed
+ * independently in parallel, writing into preallocated primitive arrays.
+ */
+public class ItemAnalysis {
+
+    static final int OPTION_SLOTS = AnswerMatrix.OPTION_COUNT + 1;
+
+    public static ItemAnalysisReport analyze(TeacherResultsDTO results) {
+        return analyze(AnswerMatrix.from(results));
+    }
+
+    public static ItemAnalysisReport analyze(AnswerMatrix matrix) {
+        final int n = matrix.getStudentCount();
+        final int k = matrix.getQuestionCount();
+
+        final double[] difficulty = new double[k];
+        final double[] discrimination = new double[k];
+        final int[] optionCounts = new int[k * OPTION_SLOTS];
+        final byte[] correctOptions = new byte[k];
+
+        final int[] totals = new int[n];
+        IntStream.range(0, n).parallel().forEach(s -> {
+            int total = 0;
+            for (int q = 0; q < k; q++) {
+                if (matrix.isCorrect(s, q)) total++;
+            }
+            totals[s] = total;
+        });
+
+        long sumTotal = 0;
+        long sumTotalSquared = 0;
+        for (int total : totals) {
+            sumTotal += total;
+            sumTotalSquared += (long) total * total;
+        }
+        final double mean = n > 0 ? (double) sumTotal / n : 0;
+        final double variance = n > 0 ? (double) sumTotalSquared / n - mean * mean : 0;
+        final long fSumTotal = sumTotal;
+        final long fSumTotalSquared = sumTotalSquared;
+
+        IntStream.range(0, k).parallel().forEach(q -> {
+            correctOptions[q] = matrix.getCorrectAnswer(q);
+            int base = q * OPTION_SLOTS;
+            int correctCount = 0;
+            long sumTotalOfCorrect = 0;
+
+            for (int s = 0; s < n; s++) {
+                byte answer = matrix.getAnswer(s, q);
+                if (answer < OPTION_SLOTS) optionCounts[base + answer]++;
+                if (matrix.isCorrect(s, q)) {
+                    correctCount++;
+                    sumTotalOfCorrect += totals[s];
+                }
+            }
+
+            if (!matrix.hasCorrectAnswer(q) || n == 0) {
+                difficulty[q] = Double.NaN;
+                discrimination[q] = Double.NaN;
+                return;
+            }
+
+            double p = (double) correctCount / n;
+            difficulty[q] = p;
+
+            // Corrected item-total correlation: compare against the score on the other items,
+            // using sum(rest) = sum(total) - c and sum(rest^2) = sum(total^2) - 2*sum(total | correct) + c
+            int incorrectCount = n - correctCount;
+            if (correctCount == 0 || incorrectCount == 0) {
+                discrimination[q] = Double.NaN;
+                return;
+            }
+            double restMean = (double) (fSumTotal - correctCount) / n;
+            double restSquaredMean = (double) (fSumTotalSquared - 2 * sumTotalOfCorrect + correctCount) / n;
+            double restStdDev = Math.sqrt(Math.max(0, restSquaredMean - restMean * restMean));
+            if (restStdDev == 0) {
+                discrimination[q] = Double.NaN;
+                return;
+            }
+            double meanRestCorrect = (double) (sumTotalOfCorrect - correctCount) / correctCount;
+            double meanRestIncorrect = (double) (fSumTotal - sumTotalOfCorrect) / incorrectCount;
+            discrimination[q] = (meanRestCorrect - meanRestIncorrect) / restStdDev * Math.sqrt(p * (1 - p));
+        });
+
+        int keyedItems = 0;
+        double sumPq = 0;
+        for (int q = 0; q < k; q++) {
+            if (!Double.isNaN(difficulty[q])) {
+                keyedItems++;
+                sumPq += difficulty[q] * (1 - difficulty[q]);
+            }
+        }
+        double kr20 = (keyedItems > 1 && variance > 0)
+                ? ((double) keyedItems / (keyedItems - 1)) * (1 - sumPq / variance)
+                : Double.NaN;
+
+        return new ItemAnalysisReport(n, k, difficulty, discrimination, optionCounts, correctOptions,
+                mean, Math.sqrt(Math.max(0, variance)), kr20);
+    }
+}
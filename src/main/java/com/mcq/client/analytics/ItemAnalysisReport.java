@@ -0,0 +1,72 @@
+package com.mcq.client.analytics;
+
+/**
+ * Per-question statistics produced by {@link ItemAnalysis}. Values are kept
+ * in parallel primitive arrays indexed by question; a question without an
+ * answer key reports NaN for difficulty and discrimination.
+ */
+public class ItemAnalysisReport {
+
+    private final int studentCount;
+    private final int questionCount;
+    private final double[] difficulty;
+    private final double[] discrimination;
+    private final int[] optionCounts;
+    private final byte[] correctOptions;
+    private final double meanScore;
+    private final double scoreStdDev;
+    private final double kr20;
+
+    ItemAnalysisReport(int studentCount, int questionCount, double[] difficulty, double[] discrimination,
+                       int[] optionCounts, byte[] correctOptions, double meanScore, double scoreStdDev, double kr20) {
+        this.studentCount = studentCount;
+        this.questionCount = questionCount;
+        this.difficulty = difficulty;
+        this.discrimination = discrimination;
+        this.optionCounts = optionCounts;
+        this.correctOptions = correctOptions;
+        this.meanScore = meanScore;
+        this.scoreStdDev = scoreStdDev;
+        this.kr20 = kr20;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    /** Proportion of students answering correctly (the item's p-value). */
+    public double getDifficulty(int question) {
+        return difficulty[question];
+    }
+
+    /** Point-biserial correlation between the item and the rest of the test. */
+    public double getDiscrimination(int question) {
+        return discrimination[question];
+    }
+
+    /** Number of students choosing an option; 0 is blank, 1-4 are A-D. */
+    public int getOptionCount(int question, int option) {
+        return optionCounts[question * ItemAnalysis.OPTION_SLOTS + option];
+    }
+
+    public byte getCorrectOption(int question) {
+        return correctOptions[question];
+    }
+
+    public double getMeanScore() {
+        return meanScore;
+    }
+
+    public double getScoreStdDev() {
+        return scoreStdDev;
+    }
+
+    /** Kuder-Richardson 20 reliability of the whole test, or NaN when undefined. */
+    public double getKr20() {
+        return kr20;
+    }
+}
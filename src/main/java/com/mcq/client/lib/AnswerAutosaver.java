@@ -0,0 +1,157 @@
+package com.mcq.client.lib;
+
+import javax.swing.*;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Saves answers in the background while a test is in progress. Changed
+ * question indices are tracked until the server acknowledges them, bursts of
+ * clicks are debounced, and at most one save is in flight at a time. With
+ * autosave.delta.enabled set, and while the backend accepts PATCH
+ * .../submissions/answers, only the changed entries are sent; otherwise the
+ * full answer list is. Acknowledged
+ * saves are recorded in the {@link AnswerJournal}, when there is one.
+ *
+ * Must be used from the Event Dispatch Thread.
+ */
+public class AnswerAutosaver {
+
+    private final ApiClient apiClient;
+    private final String classroomCode;
+    private final String testname;
+    private final int totalQuestions;
+    private final IntFunction<String> answerLookup;
+    private final AnswerJournal journal;
+    private final int debounceMillis;
+    private final long maxDelayMillis;
+
+    private final BitSet dirty = new BitSet();
+    private final Timer debounceTimer;
+    private long firstDirtyAt = 0;
+    private int retryDelayMillis = 0;
+    private CompletableFuture<Void> inFlight;
+    private long version = 0;
+    private boolean stopped = false;
+
+    public AnswerAutosaver(ApiClient apiClient, String classroomCode, String testname, int totalQuestions,
+                           IntFunction<String> answerLookup, AnswerJournal journal) {
+        this.apiClient = apiClient;
+        this.classroomCode = classroomCode;
+        this.testname = testname;
+        this.totalQuestions = totalQuestions;
+        this.answerLookup = answerLookup;
+        this.journal = journal;
+
+        AppConfig config = AppConfig.getInstance();
+        this.debounceMillis = config.getInt("autosave.debounce.ms", 1000);
+        this.maxDelayMillis = config.getLong("autosave.max.delay.ms", 5000);
+        this.debounceTimer = new Timer(debounceMillis, e -> flush());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    public void markDirty(int questionIndex) {
+        if (stopped) return;
+        if (dirty.isEmpty()) {
+            firstDirtyAt = System.currentTimeMillis();
+        }
+        dirty.set(questionIndex);
+
+        if (retryDelayMillis > 0) {
+            if (!debounceTimer.isRunning()) debounceTimer.restart();
+        } else if (System.currentTimeMillis() - firstDirtyAt >= maxDelayMillis) {
+            flush();
+        } else {
+            debounceTimer.restart();
+        }
+    }
+
+    public boolean hasUnsavedChanges() {
+        return !dirty.isEmpty() || inFlight != null;
+    }
+
+    public void flush() {
+        debounceTimer.stop();
+        if (stopped || dirty.isEmpty() || inFlight != null) return;
+
+        final BitSet sending = (BitSet) dirty.clone();
+        final boolean sendingDelta = apiClient.isDeltaSaveAvailable();
+        final int journaledRecords = journal != null ? journal.getRecordCount() : 0;
+        dirty.clear();
+
+        if (sendingDelta) {
+            Map<Integer, String> changes = new LinkedHashMap<>();
+            sending.stream().forEach(i -> changes.put(i, answerLookup.apply(i)));
+            inFlight = apiClient.updateTestAnswersDeltaAsync(classroomCode, testname, changes, version + 1);
+        } else {
+            inFlight = apiClient.updateTestAnswersAsync(classroomCode, testname, fullAnswerList());
+        }
+
+        EdtFutures.onEdt(inFlight, ignored -> {
+            inFlight = null;
+            version++;
+            retryDelayMillis = 0;
+            debounceTimer.setInitialDelay(debounceMillis);
+            if (journal != null) journal.markSynced(journaledRecords);
+            if (!dirty.isEmpty()) {
+                firstDirtyAt = System.currentTimeMillis();
+                debounceTimer.restart();
+            }
+        }, error -> {
+            inFlight = null;
+            dirty.or(sending);
+            if (sendingDelta && !apiClient.isDeltaSaveAvailable()) {
+                // The server turned the delta down; the same changes go out as a full list
+                flush();
+                return;
+            }
+            System.err.println("Failed to auto-save answers: " + error.getMessage());
+            // Back off while the server is struggling; clicks in the meantime just join the next attempt
+            retryDelayMillis = Math.min(retryDelayMillis == 0 ? 2000 : retryDelayMillis * 2, 30000);
+            debounceTimer.setInitialDelay(retryDelayMillis);
+            debounceTimer.restart();
+        });
+    }
+
+    /**
+     * Stops saving. With {@code flushPending} the answers that have not been
+     * acknowledged yet are sent once more, as a full list after any save that
+     * is still in flight. The returned future completes when that last save
+     * has landed; without {@code flushPending} it only waits for the in-flight
+     * save, whose outcome is ignored.
+     */
+    public CompletableFuture<Void> stop(boolean flushPending) {
+        debounceTimer.stop();
+        if (stopped) return CompletableFuture.completedFuture(null);
+        stopped = true;
+
+        CompletableFuture<Void> previous = inFlight != null
+                ? inFlight.handle((ignored, error) -> null)
+                : CompletableFuture.completedFuture(null);
+        if (!flushPending || !hasUnsavedChanges()) return previous;
+
+        final List<String> answers = fullAnswerList();
+        final int journaledRecords = journal != null ? journal.getRecordCount() : 0;
+        dirty.clear();
+        return previous
+                .thenCompose(ignored -> apiClient.updateTestAnswersAsync(classroomCode, testname, answers))
+                .thenRun(() -> {
+                    if (journal != null) journal.markSynced(journaledRecords);
+                });
+    }
+
+    private List<String> fullAnswerList() {
+        return IntStream.range(0, totalQuestions)
+                .mapToObj(i -> {
+                    String answer = answerLookup.apply(i);
+                    return answer != null ? answer : "";
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,237 @@
+package com.mcq.client.lib;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only record of answer changes for one student's attempt at a test,
+ * kept in a memory-mapped file so it survives the application being killed.
+ * Appends are plain writes into the mapping; a background thread forces the
+ * written range to disk periodically so a power loss costs at most that
+ * interval. The file is deleted once the test has been submitted.
+ *
+ * Layout: a 16 byte header (magic, version, records already synced to the
+ * server) followed by 8 byte records of question index, answer code and a
+ * check value. A zeroed or damaged record marks the end of the journal.
+ */
+public class AnswerJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x4D43514A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SYNCED_OFFSET = 8;
+    private static final int RECORD_SIZE = 8;
+    private static final int INITIAL_SIZE = 64 * 1024;
+    private static final String OPTIONS = "ABCD";
+
+    private static final ScheduledExecutorService FORCE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "answer-journal-force");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ScheduledFuture<?> forceTask;
+    private volatile MappedByteBuffer buffer;
+    private volatile int position;
+    private int forcedPosition;
+    private int recordCount;
+    private boolean closed = false;
+
+    private AnswerJournal(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = map(Math.max(INITIAL_SIZE, channel.size()));
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(SYNCED_OFFSET, 0);
+            for (int i = HEADER_SIZE; i < buffer.capacity(); i += RECORD_SIZE) {
+                buffer.putLong(i, 0L);
+            }
+        }
+
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_SIZE <= buffer.capacity() && isValidRecord(offset)) {
+            offset += RECORD_SIZE;
+            recordCount++;
+        }
+        this.position = offset;
+        this.forcedPosition = offset;
+
+        long forceMillis = Math.max(50, AppConfig.getInstance().getLong("journal.force.ms", 1000));
+        this.forceTask = FORCE_EXECUTOR.scheduleWithFixedDelay(this::force, forceMillis, forceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static AnswerJournal open(String username, String classroomCode, String testname) throws IOException {
+        return new AnswerJournal(pathFor(username, classroomCode, testname));
+    }
+
+    public static boolean exists(String username, String classroomCode, String testname) {
+        return Files.exists(pathFor(username, classroomCode, testname));
+    }
+
+    private static Path pathFor(String username, String classroomCode, String testname) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((username + "\n" + classroomCode + "\n" + testname).getBytes(StandardCharsets.UTF_8));
+            return AppDirectories.dataDir().resolve("journal").resolve(HexFormat.of().formatHex(hash, 0, 16) + ".journal");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized void append(int questionIndex, String answer) {
+        if (closed) return;
+        int code = 0;
+        if (answer != null && !answer.isEmpty()) {
+            code = answer.length() == 1 ? OPTIONS.indexOf(answer.charAt(0)) + 1 : 0;
+            if (code == 0) return;
+        }
+
+        if (position + RECORD_SIZE > buffer.capacity()) {
+            try {
+                buffer = map((long) buffer.capacity() * 2);
+            } catch (IOException e) {
+                System.err.println("Answer journal is full and could not grow: " + e.getMessage());
+                return;
+            }
+        }
+        buffer.putInt(position, questionIndex);
+        buffer.putShort(position + 4, (short) code);
+        buffer.putShort(position + 6, check(questionIndex, code));
+        position += RECORD_SIZE;
+        recordCount++;
+    }
+
+    public synchronized Map<Integer, String> replay() {
+        Map<Integer, String> answers = new HashMap<>();
+        for (int offset = HEADER_SIZE; offset < position; offset += RECORD_SIZE) {
+            int question = buffer.getInt(offset);
+            int code = buffer.getShort(offset + 4);
+            if (code == 0) {
+                answers.remove(question);
+            } else {
+                answers.put(question, String.valueOf(OPTIONS.charAt(code - 1)));
+            }
+        }
+        return answers;
+    }
+
+    public synchronized boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized boolean hasUnsyncedRecords() {
+        return buffer.getInt(SYNCED_OFFSET) < recordCount;
+    }
+
+    // Questions changed by records the server has not acknowledged yet
+    public synchronized Set<Integer> unsyncedQuestions() {
+        Set<Integer> questions = new HashSet<>();
+        int synced = Math.max(0, buffer.getInt(SYNCED_OFFSET));
+        for (int offset = HEADER_SIZE + synced * RECORD_SIZE; offset < position; offset += RECORD_SIZE) {
+            questions.add(buffer.getInt(offset));
+        }
+        return questions;
+    }
+
+    // Records the first {@code records} entries as acknowledged; a save covers everything appended before it was sent
+    public synchronized void markSynced(int records) {
+        if (closed) return;
+        int synced = Math.min(records, recordCount);
+        if (synced > buffer.getInt(SYNCED_OFFSET)) {
+            buffer.putInt(SYNCED_OFFSET, synced);
+        }
+    }
+
+    // msync runs outside the monitor so appends on the EDT never wait for the disk
+    private void force() {
+        MappedByteBuffer target;
+        int end;
+        synchronized (this) {
+            if (closed || position == forcedPosition) return;
+            target = buffer;
+            end = position;
+        }
+        target.force(0, end);
+        synchronized (this) {
+            forcedPosition = Math.max(forcedPosition, end);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            forceTask.cancel(false);
+        }
+        force();
+        synchronized (this) {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close answer journal: " + e.getMessage());
+            }
+        }
+    }
+
+    public void delete() {
+        synchronized (this) {
+            // Invalidate first: if the file cannot be removed it must not be recovered next time
+            if (!closed) buffer.putInt(0, 0);
+        }
+        close();
+        synchronized (this) {
+            buffer = null; // the mapping keeps the file open on Windows until it is collected
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete answer journal, removing it on exit: " + e.getMessage());
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        return mapped;
+    }
+
+    private boolean isValidRecord(int offset) {
+        int question = buffer.getInt(offset);
+        int code = buffer.getShort(offset + 4);
+        return question >= 0 && code >= 0 && code <= OPTIONS.length()
+                && buffer.getShort(offset + 6) == check(question, code);
+    }
+
+    private static short check(int questionIndex, int code) {
+        return (short) ((questionIndex * 31 + code) ^ 0x4D43);
+    }
+}
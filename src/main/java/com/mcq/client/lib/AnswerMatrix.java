@@ -0,0 +1,138 @@
+package com.mcq.client.lib;
+
+import com.mcq.client.lib.Models.StudentResultDTO;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Students x questions answer grid packed into one byte per cell, with
+ * correctness precomputed as a bitset. Built once from a
+ * {@link TeacherResultsDTO} and shared by the submissions table and the
+ * item analysis.
+ */
+public class AnswerMatrix {
+
+    public static final byte NO_ANSWER = 0;
+    public static final byte OTHER = 5;
+    public static final int OPTION_COUNT = 4;
+
+    private static final String[] LABELS = {"-", "A", "B", "C", "D"};
+
+    private final int studentCount;
+    private final int questionCount;
+    private final byte[] answers;
+    private final byte[] correctAnswers;
+    private final String[] correctLabels;
+    private final long[] correctBits;
+    private final String[] studentNames;
+    private final int[] scores;
+    private final int[] totals;
+    private final Map<Integer, String> otherAnswers = new HashMap<>();
+
+    private AnswerMatrix(int studentCount, int questionCount) {
+        this.studentCount = studentCount;
+        this.questionCount = questionCount;
+        this.answers = new byte[studentCount * questionCount];
+        this.correctAnswers = new byte[questionCount];
+        this.correctLabels = new String[questionCount];
+        this.correctBits = new long[(answers.length + 63) >>> 6];
+        this.studentNames = new String[studentCount];
+        this.scores = new int[studentCount];
+        this.totals = new int[studentCount];
+    }
+
+    public static AnswerMatrix from(TeacherResultsDTO results) {
+        List<StudentResultDTO> submissions = results.submissions();
+        int questions = Math.max(0, results.totalQuestions());
+        AnswerMatrix matrix = new AnswerMatrix(submissions.size(), questions);
+
+        List<String> correct = results.correctAnswers();
+        for (int q = 0; q < questions; q++) {
+            boolean known = correct != null && q < correct.size();
+            matrix.correctAnswers[q] = known ? encode(correct.get(q)) : NO_ANSWER;
+            matrix.correctLabels[q] = known ? correct.get(q) : "?";
+        }
+
+        for (int s = 0; s < submissions.size(); s++) {
+            StudentResultDTO sub = submissions.get(s);
+            matrix.studentNames[s] = sub.user().firstname() + " " + sub.user().lastname();
+            matrix.scores[s] = sub.score();
+            matrix.totals[s] = sub.totalQuestions();
+
+            List<String> userAnswers = sub.userAnswers();
+            int base = s * questions;
+            for (int q = 0; q < questions; q++) {
+                String raw = (userAnswers != null && q < userAnswers.size()) ? userAnswers.get(q) : null;
+                byte code = encode(raw);
+                matrix.answers[base + q] = code;
+                if (code == OTHER) {
+                    matrix.otherAnswers.put(base + q, raw);
+                }
+                if (code != NO_ANSWER && code == matrix.correctAnswers[q]
+                        && (code != OTHER || raw.equals(correct.get(q)))) {
+                    matrix.correctBits[(base + q) >>> 6] |= 1L << (base + q);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    public static byte encode(String answer) {
+        if (answer == null || answer.isEmpty()) return NO_ANSWER;
+        if (answer.length() == 1) {
+            char c = answer.charAt(0);
+            if (c >= 'A' && c <= 'D') return (byte) (c - 'A' + 1);
+        }
+        return OTHER;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public byte getAnswer(int student, int question) {
+        return answers[student * questionCount + question];
+    }
+
+    public String getAnswerLabel(int student, int question) {
+        int cell = student * questionCount + question;
+        byte code = answers[cell];
+        return code == OTHER ? otherAnswers.get(cell) : LABELS[code];
+    }
+
+    public byte getCorrectAnswer(int question) {
+        return correctAnswers[question];
+    }
+
+    public String getCorrectAnswerLabel(int question) {
+        return correctLabels[question];
+    }
+
+    public boolean hasCorrectAnswer(int question) {
+        return correctAnswers[question] != NO_ANSWER;
+    }
+
+    public boolean isCorrect(int student, int question) {
+        int cell = student * questionCount + question;
+        return (correctBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public String getStudentName(int student) {
+        return studentNames[student];
+    }
+
+    public int getScore(int student) {
+        return scores[student];
+    }
+
+    public int getTotalQuestions(int student) {
+        return totals[student];
+    }
+}
@@ -2,54 +2,149 @@ package com.mcq.client.lib;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.mcq.client.lib.Models.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.net.CookieHandler;
 import java.net.CookieManager;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.Executors;
 
 public class ApiClient {
 
+    private static final int MAX_ERROR_BODY_BYTES = 64 * 1024;
+
     private static ApiClient instance;
+    // Once the server turns down a delta save, no session in this process asks again
+    private static final AtomicBoolean deltaSaveRejected = new AtomicBoolean();
     private final String API_BASE_URL;
     private final HttpClient httpClient;
+    private final TransportConfig transport;
+    private final Metrics metrics = Metrics.getInstance();
+    private final boolean acceptCompressed;
+    private final int compressRequestsAbove;
     private final Gson gson;
+    private final PdfDiskCache pdfCache;
+    private final CookieManager sessionCookies;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Identical GETs issued while one is already on the wire share its result instead of hitting the network again
+    private final Map<String, CompletableFuture<?>> inFlightGets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> coalescedCalls = new ConcurrentHashMap<>();
+    private final AtomicLong sessionEpoch = new AtomicLong();
+
+    private volatile ApiResponseCache responseCache;
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheStaleHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final long classroomsTtlMillis;
+    private final long classroomTtlMillis;
+    private final long testsTtlMillis;
+    private final long userTtlMillis;
+    private final long staleMillis;
+    private final UserBatchLoader userLoader;
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final int retryMaxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxDelayMillis;
+    private final long retryBudgetMillis;
+    private final int breakerFailureThreshold;
+    private final long breakerOpenMillis;
+    private final boolean deltaSaveEnabled;
 
     private ApiClient() {
-        Properties props = new Properties();
-        String baseUrl;
-        try (InputStream in = ApiClient.class.getClassLoader().getResourceAsStream("application.properties")) {
-            if (in != null) {
-                props.load(in);
-                baseUrl = props.getProperty("api.base.url", "http://localhost:8080");
-            } else {
-                System.err.println("WARNING: application.properties not found. Defaulting to localhost:8080");
-                baseUrl = "http://localhost:8080";
-            }
-        } catch (IOException e) {
-            System.err.println("ERROR: Failed to load application.properties. Defaulting to localhost:8080");
-            e.printStackTrace();
-            baseUrl = "http://localhost:8080";
-        }
-        this.API_BASE_URL = baseUrl;
+        this(AppConfig.getInstance().get("api.base.url", "http://localhost:8080"), null);
+    }
 
-        CookieHandler.setDefault(new CookieManager());
+    private ApiClient(String baseUrl, HttpClient sharedHttpClient) {
+        this.API_BASE_URL = baseUrl;
 
-        this.httpClient = HttpClient.newBuilder()
-                .cookieHandler(CookieHandler.getDefault())
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.transport = TransportConfig.from(AppConfig.getInstance());
+        this.acceptCompressed = AppConfig.getInstance().getBoolean("api.compression.responses", true);
+        this.compressRequestsAbove = AppConfig.getInstance().getInt("api.compression.request.min.bytes", -1);
         this.gson = new Gson();
+
+        AppConfig config = AppConfig.getInstance();
+        if (sharedHttpClient == null) {
+            CookieHandler.setDefault(new CookieManager());
+            this.httpClient = transport.newClientBuilder(asyncExecutor)
+                    .cookieHandler(CookieHandler.getDefault())
+                    .build();
+            this.sessionCookies = null;
+            this.pdfCache = new PdfDiskCache(
+                    AppDirectories.cacheDir().resolve("pdf"),
+                    config.getLong("pdf.cache.max.mb", 512) * 1024 * 1024,
+                    config.getLong("pdf.cache.fresh.seconds", 300) * 1000);
+        } else {
+            // Many sessions over one connection pool: cookies are kept per instance and sent by hand
+            this.httpClient = sharedHttpClient;
+            this.sessionCookies = new CookieManager();
+            this.pdfCache = null;
+        }
+
+        this.responseCache = new LruResponseCache(config.getInt("api.cache.max.entries", 1024));
+        this.classroomsTtlMillis = config.getLong("api.cache.classrooms.ttl.seconds", 30) * 1000;
+        this.classroomTtlMillis = config.getLong("api.cache.classroom.ttl.seconds", 30) * 1000;
+        this.testsTtlMillis = config.getLong("api.cache.tests.ttl.seconds", 15) * 1000;
+        this.userTtlMillis = config.getLong("api.cache.users.ttl.seconds", 300) * 1000;
+        this.staleMillis = config.getLong("api.cache.stale.seconds", 120) * 1000;
+
+        this.retryMaxAttempts = Math.max(1, config.getInt("api.retry.max.attempts", 4));
+        this.retryBaseMillis = config.getLong("api.retry.base.ms", 250);
+        this.retryMaxDelayMillis = config.getLong("api.retry.max.delay.ms", 8000);
+        this.retryBudgetMillis = config.getLong("api.retry.budget.ms", 30000);
+        this.breakerFailureThreshold = config.getInt("api.breaker.failure.threshold", 5);
+        this.breakerOpenMillis = config.getLong("api.breaker.open.ms", 10000);
+        this.deltaSaveEnabled = config.getBoolean("autosave.delta.enabled", false);
+
+        this.userLoader = new UserBatchLoader(this::getUsersAsync, this::getUserByUsernameAsync, asyncExecutor,
+                config.getLong("users.batch.window.ms", 15),
+                config.getInt("users.batch.max", 100),
+                config.getInt("users.fetch.parallelism", 8));
+
+        if (sharedHttpClient == null) {
+            metrics.registerGauge("api.responseCache", this::getResponseCacheStats);
+            metrics.registerGauge("api.coalescedCalls", this::getCoalescedCallCounts);
+            metrics.registerGauge("api.circuitBreakers", this::getCircuitBreakerStates);
+        }
     }
 
     public static synchronized ApiClient getInstance() {
@@ -59,188 +154,847 @@ public class ApiClient {
         return instance;
     }
 
-    private <T> T request(String endpoint, String method, Object body, TypeToken<T> responseType) throws Exception {
-        try {
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL + endpoint))
-                    .header("Content-Type", "application/json");
+    /**
+     * A separate client session for headless tools such as load generators. It
+     * sends requests through {@code sharedHttpClient} (which should have no
+     * cookie handler) but keeps its own cookies, caches and circuit breakers,
+     * and never touches the on-disk PDF cache.
+     */
+    public static ApiClient newSession(String baseUrl, HttpClient sharedHttpClient) {
+        return new ApiClient(baseUrl, sharedHttpClient);
+    }
 
-            if (body != null) {
-                String jsonBody = gson.toJson(body);
-                requestBuilder.method(method, HttpRequest.BodyPublishers.ofString(jsonBody));
-            } else {
-                requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+    private void addSessionCookies(HttpRequest.Builder requestBuilder, URI uri) {
+        if (sessionCookies == null) return;
+        try {
+            List<String> cookies = sessionCookies.get(uri, Map.of()).getOrDefault("Cookie", List.of());
+            if (!cookies.isEmpty()) {
+                requestBuilder.header("Cookie", String.join("; ", cookies));
             }
+        } catch (IOException e) {
+            System.err.println("Failed to read session cookies: " + e.getMessage());
+        }
+    }
+
+    private void storeSessionCookies(HttpResponse<?> response) {
+        if (sessionCookies == null) return;
+        try {
+            sessionCookies.put(response.request().uri(), response.headers().map());
+        } catch (IOException e) {
+            System.err.println("Failed to store session cookies: " + e.getMessage());
+        }
+    }
 
-            HttpRequest request = requestBuilder.build();
-            HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+    private HttpRequest buildRequest(String endpoint, String method, Object body) {
+        URI uri = URI.create(API_BASE_URL + endpoint);
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(transport.requestTimeout())
+                .header("Content-Type", "application/json");
+        if (acceptCompressed) {
+            requestBuilder.header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        }
+        addSessionCookies(requestBuilder, uri);
 
-            if (response.statusCode() >= 400) {
+        if (body != null) {
+            byte[] jsonBody = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            // Off unless configured: the server has to be set up to inflate request bodies
+            if (compressRequestsAbove >= 0 && jsonBody.length >= compressRequestsAbove) {
                 try {
-                    ApiError error = gson.fromJson(response.body(), ApiError.class);
-                    if (error != null && error.message() != null) {
-                        throw new IOException(error.message());
-                    }
-                    throw new IOException("HTTP Error: " + response.statusCode() + " - " + response.body());
-                } catch (Exception e) {
-                    if(e instanceof IOException) throw e;
-                    throw new IOException("HTTP Error: " + response.statusCode() + " - " + response.body());
+                    jsonBody = ContentEncoding.gzip(jsonBody);
+                    requestBuilder.header("Content-Encoding", "gzip");
+                } catch (IOException e) {
+                    System.err.println("Failed to compress request body, sending it uncompressed: " + e.getMessage());
                 }
             }
+            requestBuilder.method(method, HttpRequest.BodyPublishers.ofByteArray(jsonBody));
+        } else {
+            requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return requestBuilder.build();
+    }
+
+    private <T> CompletableFuture<T> requestAsync(String endpoint, String method, Object body, TypeToken<T> responseType) {
+        return requestAsync(endpoint, method, body, responseType, "GET".equals(method));
+    }
+
+    private <T> CompletableFuture<T> requestAsync(String endpoint, String method, Object body, TypeToken<T> responseType, boolean idempotent) {
+        HttpRequest request;
+        try {
+            request = buildRequest(endpoint, method, body);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(wrapFailure(e));
+        }
+        Supplier<CompletableFuture<T>> call = () -> withResilience(request.uri(), idempotent, () -> sendAsync(request, responseType));
+        if ("GET".equals(method)) {
+            return coalesce(endpoint, call);
+        }
+        return call.get();
+    }
+
+    // Idempotent calls are retried on transient failures with jittered exponential backoff, or after the
+    // server's Retry-After. Every call goes through the host's circuit breaker and waits out an open
+    // breaker within the retry budget instead of adding to the load.
+    private <T> CompletableFuture<T> withResilience(URI uri, boolean retryable, Supplier<CompletableFuture<T>> call) {
+        CircuitBreaker breaker = circuitBreakers.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+                host -> new CircuitBreaker(breakerFailureThreshold, breakerOpenMillis));
+        return attempt(breaker, retryable ? retryMaxAttempts : 1, 1, System.currentTimeMillis() + retryBudgetMillis, call);
+    }
+
+    private <T> CompletableFuture<T> attempt(CircuitBreaker breaker, int maxAttempts, int attempt, long deadline,
+                                             Supplier<CompletableFuture<T>> call) {
+        if (!breaker.tryAcquire()) {
+            CompletableFuture<Void> probe = breaker.pendingProbe();
+            long remaining = deadline - System.currentTimeMillis();
+            if (probe != null && remaining > 0) {
+                // Another call is probing the server; go again as soon as it has an answer
+                return probe.copy()
+                        .completeOnTimeout(null, remaining, TimeUnit.MILLISECONDS)
+                        .thenComposeAsync(ignored -> attempt(breaker, maxAttempts, attempt, deadline, call), asyncExecutor);
+            }
+            long wait = breaker.remainingOpenMillis() + ThreadLocalRandom.current().nextLong(retryBaseMillis + 1);
+            if (System.currentTimeMillis() + wait > deadline) {
+                return CompletableFuture.failedFuture(wrapFailure(new HttpStatusException(503,
+                        "Server is unavailable, requests are paused", breaker.remainingOpenMillis())));
+            }
+            return delay(wait).thenCompose(ignored -> attempt(breaker, maxAttempts, attempt, deadline, call));
+        }
 
-            if (response.statusCode() == 204 || response.body().isEmpty()) {
-                return null;
+        return call.get()
+                .whenComplete((result, error) -> recordOutcome(breaker, error))
+                .exceptionallyCompose(error -> {
+                    Throwable failure = EdtFutures.unwrap(error);
+                    if (attempt >= maxAttempts || !isTransient(failure)) {
+                        return CompletableFuture.failedFuture(failure);
+                    }
+                    long retryAfter = statusCause(failure) instanceof HttpStatusException status ? status.getRetryAfterMillis() : -1;
+                    long delay = retryAfter >= 0
+                            ? retryAfter + ThreadLocalRandom.current().nextLong(retryBaseMillis + 1)
+                            : ThreadLocalRandom.current().nextLong(Math.min(retryMaxDelayMillis, retryBaseMillis << Math.min(attempt - 1, 20)) + 1);
+                    if (System.currentTimeMillis() + delay > deadline) {
+                        return CompletableFuture.failedFuture(failure);
+                    }
+                    return delay(delay).thenCompose(ignored -> attempt(breaker, maxAttempts, attempt + 1, deadline, call));
+                });
+    }
+
+    private static void recordOutcome(CircuitBreaker breaker, Throwable error) {
+        if (error == null) {
+            breaker.recordSuccess();
+            return;
+        }
+        Throwable cause = statusCause(EdtFutures.unwrap(error));
+        if (cause instanceof HttpStatusException status) {
+            int code = status.getStatusCode();
+            if (code == 503 && status.getRetryAfterMillis() >= 0) {
+                breaker.openFor(status.getRetryAfterMillis());
+            } else if (code >= 500 && code != 501) {
+                breaker.recordFailure();
+            } else {
+                // The server answered; a 4xx says nothing about its health
+                breaker.recordSuccess();
+            }
+        } else if (cause instanceof IOException) {
+            breaker.recordFailure();
+        } else if (cause instanceof CancellationException) {
+            breaker.releaseProbe();
+        } else {
+            // The server answered; the failure was in handling its response
+            breaker.recordSuccess();
+        }
+    }
+
+    private static boolean isTransient(Throwable failure) {
+        Throwable cause = statusCause(failure);
+        if (cause instanceof HttpStatusException status) {
+            int code = status.getStatusCode();
+            return code == 429 || code == 502 || code == 503 || code == 504;
+        }
+        return cause instanceof IOException;
+    }
+
+    private static Throwable statusCause(Throwable failure) {
+        return failure instanceof ApiException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private CompletableFuture<Void> delay(long millis) {
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, asyncExecutor));
+    }
+
+    private static long parseRetryAfterMillis(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null) return -1;
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return -1;
             }
+        }
+    }
+
+    // Opens (and for HTTP/2, upgrades) the connection to the API host before the first real request needs it
+    public CompletableFuture<Void> prewarm() {
+        if (!transport.prewarm()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long started = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(API_BASE_URL + "/"))
+                .timeout(transport.connectTimeout())
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.sendAsync(request, BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        System.err.println("Connection pre-warm failed: " + EdtFutures.unwrap(error).getMessage());
+                    } else {
+                        Map<String, Object> prewarmed = Map.of("version", response.version().name(),
+                                "millis", (System.nanoTime() - started) / 1_000_000);
+                        metrics.registerGauge("api.prewarm", () -> prewarmed);
+                    }
+                    return null;
+                });
+    }
+
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        circuitBreakers.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return states;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(String endpoint, Supplier<CompletableFuture<T>> call) {
+        // Keyed by session too, so a request made before login/logout is never handed to a caller after it
+        String key = sessionEpoch.get() + " " + endpoint;
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlightGets.putIfAbsent(key, shared);
+        if (existing != null) {
+            int query = endpoint.indexOf('?');
+            coalescedCalls.computeIfAbsent(query < 0 ? endpoint : endpoint.substring(0, query), k -> new LongAdder()).increment();
+            return existing.copy();
+        }
+
+        call.get().whenComplete((result, error) -> {
+            inFlightGets.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(EdtFutures.unwrap(error));
+            } else {
+                shared.complete(result);
+            }
+        });
+        // Each caller gets its own copy so cancelling one does not cancel the request for everyone else
+        return shared.copy();
+    }
+
+    public Map<String, Long> getCoalescedCallCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        coalescedCalls.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    private <T> CompletableFuture<T> onSessionChange(CompletableFuture<T> future) {
+        return future.whenComplete((result, error) -> {
+            sessionEpoch.incrementAndGet();
+            invalidateCache(key -> true);
+        });
+    }
+
+    public void setResponseCache(ApiResponseCache cache) {
+        invalidateCache(key -> true);
+        this.responseCache = cache;
+    }
+
+    public ApiResponseCache.Stats getResponseCacheStats() {
+        return new ApiResponseCache.Stats(cacheHits.sum(), cacheStaleHits.sum(), cacheMisses.sum(), responseCache.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> cachedGetAsync(String endpoint, long ttlMillis, TypeToken<T> responseType) {
+        return cachedGetAsync(endpoint, ttlMillis, staleMillis, responseType);
+    }
+
+    private <T> CompletableFuture<T> cachedGetAsync(String endpoint, long ttlMillis, long staleMillis, TypeToken<T> responseType) {
+        ApiResponseCache cache = responseCache;
+        if (ttlMillis <= 0) {
+            return requestAsync(endpoint, "GET", null, responseType);
+        }
+
+        long now = System.currentTimeMillis();
+        ApiResponseCache.Entry entry = cache.get(endpoint);
+        if (entry != null && entry.isFresh(now)) {
+            cacheHits.increment();
+            metrics.recordCacheLookup("api.response", true);
+            return CompletableFuture.completedFuture((T) entry.value());
+        }
 
-            if (responseType.getType() == Void.class) {
+        // A mutation or session change while this is in flight bumps the generation, so the
+        // response that raced it is handed to the caller but never stored
+        long generation = cacheGeneration.get();
+        CompletableFuture<T> fetch = requestAsync(endpoint, "GET", null, responseType)
+                .thenApply(value -> {
+                    if (value != null && cacheGeneration.get() == generation) {
+                        long storedAt = System.currentTimeMillis();
+                        cache.put(endpoint, new ApiResponseCache.Entry(value, storedAt + ttlMillis, storedAt + ttlMillis + staleMillis));
+                    }
+                    return value;
+                });
+
+        if (entry != null) {
+            cacheStaleHits.increment();
+            metrics.recordCacheLookup("api.response", true);
+            fetch.exceptionally(error -> {
+                System.err.println("Background refresh of " + endpoint + " failed: " + error.getMessage());
                 return null;
+            });
+            return CompletableFuture.completedFuture((T) entry.value());
+        }
+        cacheMisses.increment();
+        metrics.recordCacheLookup("api.response", false);
+        return fetch;
+    }
+
+    private void invalidateCache(Predicate<String> keyFilter) {
+        cacheGeneration.incrementAndGet();
+        responseCache.invalidateIf(keyFilter);
+    }
+
+    private <T> CompletableFuture<T> invalidating(CompletableFuture<T> mutation, Predicate<String> keyFilter) {
+        // Invalidate even on failure: the server may have applied the change before the error
+        return mutation.whenComplete((result, error) -> invalidateCache(keyFilter));
+    }
+
+    private static Predicate<String> classroomLists() {
+        return key -> key.equals("/api/classrooms") || key.startsWith("/api/classrooms?");
+    }
+
+    private static Predicate<String> classroom(String code) {
+        return classroomLists().or(key -> key.equals("/api/classrooms/" + code));
+    }
+
+    private static Predicate<String> classroomTests(String code) {
+        return key -> key.equals("/api/classrooms/" + code + "/tests");
+    }
+
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, TypeToken<T> responseType) {
+        Metrics.RequestTimer timer = metrics.startRequest(request);
+        return httpClient.sendAsync(request, BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    storeSessionCookies(response);
+                    try (InputStream body = ContentEncoding.decode(response.headers(), timer.countBytesIn(response.body()))) {
+                        return decode(response.statusCode(), parseRetryAfterMillis(response.headers()), body, responseType);
+                    } catch (Exception e) {
+                        throw new CompletionException(wrapFailure(e));
+                    }
+                }, asyncExecutor)
+                .exceptionallyCompose(t -> {
+                    Throwable cause = EdtFutures.unwrap(t);
+                    if (cause instanceof ApiException) return CompletableFuture.failedFuture(cause);
+                    return CompletableFuture.failedFuture(wrapFailure(cause));
+                })
+                .whenComplete((result, error) -> timer.finish(error));
+    }
+
+    // Parses straight off the response stream so large bodies never exist as one big String
+    <T> T decode(int statusCode, long retryAfterMillis, InputStream body, TypeToken<T> responseType) throws IOException {
+        if (statusCode >= 400) {
+            String errorBody = readLimited(body, MAX_ERROR_BODY_BYTES);
+            try {
+                ApiError error = gson.fromJson(errorBody, ApiError.class);
+                if (error != null && error.message() != null) {
+                    throw new HttpStatusException(statusCode, error.message(), retryAfterMillis);
+                }
+                throw new HttpStatusException(statusCode, "HTTP Error: " + statusCode + " - " + errorBody, retryAfterMillis);
+            } catch (Exception e) {
+                if(e instanceof IOException) throw (IOException) e;
+                throw new HttpStatusException(statusCode, "HTTP Error: " + statusCode + " - " + errorBody, retryAfterMillis);
             }
+        }
+
+        if (statusCode == 204 || responseType.getType() == Void.class) {
+            body.transferTo(OutputStream.nullOutputStream());
+            return null;
+        }
 
-            return gson.fromJson(response.body(), responseType);
+        PushbackInputStream in = new PushbackInputStream(body, 1);
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+        in.unread(first);
 
-        } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("java.lang.Void")) {
-                throw new Exception("Gson deserialization error: " + e.getMessage(), e);
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return gson.fromJson(reader, responseType);
+    }
+
+    private static String readLimited(InputStream in, int limit) throws IOException {
+        byte[] bytes = in.readNBytes(limit);
+        in.transferTo(OutputStream.nullOutputStream());
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ApiException wrapFailure(Throwable e) {
+        if (e.getMessage() != null && e.getMessage().contains("java.lang.Void")) {
+            return new ApiException("Gson deserialization error: " + e.getMessage(), e);
+        }
+        return new ApiException("API request failed: " + e.getMessage(), e);
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
-            throw new Exception("API request failed: " + e.getMessage(), e);
+        }, asyncExecutor);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = EdtFutures.unwrap(e);
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
         }
     }
 
     public void login(String username, String password) throws Exception {
-        request("/api/auth/login", "POST", new LoginRequest(username, password), new TypeToken<Void>() {});
+        await(loginAsync(username, password));
+    }
+
+    public CompletableFuture<Void> loginAsync(String username, String password) {
+        return onSessionChange(requestAsync("/api/auth/login", "POST", new LoginRequest(username, password), new TypeToken<Void>() {}));
     }
 
     public void register(RegisterRequest req) throws Exception {
-        request("/api/auth/register", "POST", req, new TypeToken<Void>() {});
+        await(registerAsync(req));
+    }
+
+    public CompletableFuture<Void> registerAsync(RegisterRequest req) {
+        return requestAsync("/api/auth/register", "POST", req, new TypeToken<Void>() {});
     }
 
     public void logout() throws Exception {
-        request("/api/auth/logout", "POST", null, new TypeToken<Void>() {});
+        await(logoutAsync());
+    }
+
+    public CompletableFuture<Void> logoutAsync() {
+        return onSessionChange(requestAsync("/api/auth/logout", "POST", null, new TypeToken<Void>() {}));
     }
 
     public User getUserByUsername(String username) throws Exception {
-        return request("/api/users/" + username, "GET", null, new TypeToken<User>() {});
+        return await(getUserByUsernameAsync(username));
+    }
+
+    public CompletableFuture<User> getUserByUsernameAsync(String username) {
+        return cachedGetAsync("/api/users/" + username, userTtlMillis, new TypeToken<User>() {});
+    }
+
+    public List<User> getUsers(List<String> usernames) throws Exception {
+        return await(getUsersAsync(usernames));
+    }
+
+    public CompletableFuture<List<User>> getUsersAsync(List<String> usernames) {
+        String query = usernames.stream()
+                .map(username -> URLEncoder.encode(username, StandardCharsets.UTF_8))
+                .collect(Collectors.joining(","));
+        long generation = cacheGeneration.get();
+        return requestAsync("/api/users?usernames=" + query, "GET", null, new TypeToken<List<User>>() {})
+                .thenApply(users -> {
+                    // Seed the per-user entries so later single lookups are served locally
+                    if (users != null && userTtlMillis > 0 && cacheGeneration.get() == generation) {
+                        long now = System.currentTimeMillis();
+                        for (User user : users) {
+                            if (user == null || user.username() == null) continue;
+                            responseCache.put("/api/users/" + user.username(),
+                                    new ApiResponseCache.Entry(user, now + userTtlMillis, now + userTtlMillis + staleMillis));
+                        }
+                    }
+                    return users;
+                });
+    }
+
+    // Lookups made within a few milliseconds of each other are sent to the server as one request
+    public CompletableFuture<User> loadUserAsync(String username) {
+        ApiResponseCache.Entry entry = responseCache.get("/api/users/" + username);
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            cacheHits.increment();
+            metrics.recordCacheLookup("api.response", true);
+            return CompletableFuture.completedFuture((User) entry.value());
+        }
+        return userLoader.load(username);
     }
 
     public List<ClassroomDTO> getClassrooms(String filter) throws Exception {
+        return await(getClassroomsAsync(filter));
+    }
+
+    public CompletableFuture<List<ClassroomDTO>> getClassroomsAsync(String filter) {
         String query = (filter != null) ? "?filter=" + filter : "";
-        return request("/api/classrooms" + query, "GET", null, new TypeToken<List<ClassroomDTO>>() {});
+        return cachedGetAsync("/api/classrooms" + query, classroomsTtlMillis, new TypeToken<List<ClassroomDTO>>() {});
     }
 
     public ClassroomDTO getClassroom(String code) throws Exception {
-        return request("/api/classrooms/" + code, "GET", null, new TypeToken<ClassroomDTO>() {});
+        return await(getClassroomAsync(code));
+    }
+
+    public CompletableFuture<ClassroomDTO> getClassroomAsync(String code) {
+        return cachedGetAsync("/api/classrooms/" + code, classroomTtlMillis, new TypeToken<ClassroomDTO>() {});
     }
 
     public ClassroomDTO createClassroom(String classroomName) throws Exception {
-        return request("/api/classrooms", "POST", Map.of("classroomname", classroomName), new TypeToken<ClassroomDTO>() {});
+        return await(createClassroomAsync(classroomName));
+    }
+
+    public CompletableFuture<ClassroomDTO> createClassroomAsync(String classroomName) {
+        return invalidating(requestAsync("/api/classrooms", "POST", Map.of("classroomname", classroomName), new TypeToken<ClassroomDTO>() {}),
+                classroomLists());
     }
 
     public void joinClassroom(String code) throws Exception {
-        request("/api/classrooms/" + code + "/join", "POST", null, new TypeToken<Void>() {});
+        await(joinClassroomAsync(code));
+    }
+
+    public CompletableFuture<Void> joinClassroomAsync(String code) {
+        return invalidating(requestAsync("/api/classrooms/" + code + "/join", "POST", null, new TypeToken<Void>() {}),
+                classroom(code));
     }
 
     public void removeStudent(String code, String studentUsername) throws Exception {
-        request("/api/classrooms/" + code + "/remove/" + studentUsername, "DELETE", null, new TypeToken<Void>() {});
+        await(removeStudentAsync(code, studentUsername));
+    }
+
+    public CompletableFuture<Void> removeStudentAsync(String code, String studentUsername) {
+        return invalidating(requestAsync("/api/classrooms/" + code + "/remove/" + studentUsername, "DELETE", null, new TypeToken<Void>() {}),
+                classroom(code));
     }
 
     public List<Test> getTests(String classroomCode) throws Exception {
-        return request("/api/classrooms/" + classroomCode + "/tests", "GET", null, new TypeToken<List<Test>>() {});
+        return await(getTestsAsync(classroomCode));
+    }
+
+    public CompletableFuture<List<Test>> getTestsAsync(String classroomCode) {
+        // Test status decides whether students can start, so an expired list is served stale for no longer than its TTL
+        return cachedGetAsync("/api/classrooms/" + classroomCode + "/tests", testsTtlMillis,
+                Math.min(staleMillis, testsTtlMillis), new TypeToken<List<Test>>() {});
     }
 
     public Test getTest(String classroomCode, String testname) throws Exception {
-        return request("/api/classrooms/" + classroomCode + "/tests/" + testname, "GET", null, new TypeToken<Test>() {});
+        return await(getTestAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<Test> getTestAsync(String classroomCode, String testname) {
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname, "GET", null, new TypeToken<Test>() {});
     }
 
     public void startTest(String classroomCode, String testname) throws Exception {
-        request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/start", "POST", null, new TypeToken<Void>() {});
+        await(startTestAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<Void> startTestAsync(String classroomCode, String testname) {
+        return invalidating(requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/start", "POST", null, new TypeToken<Void>() {}),
+                classroomTests(classroomCode));
     }
 
     public void endTest(String classroomCode, String testname) throws Exception {
-        request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/end", "POST", null, new TypeToken<Void>() {});
+        await(endTestAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<Void> endTestAsync(String classroomCode, String testname) {
+        return invalidating(requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/end", "POST", null, new TypeToken<Void>() {}),
+                classroomTests(classroomCode));
     }
 
     public void deleteTest(String classroomCode, String testname) throws Exception {
-        request("/api/classrooms/" + classroomCode + "/tests/" + testname, "DELETE", null, new TypeToken<Void>() {});
+        await(deleteTestAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<Void> deleteTestAsync(String classroomCode, String testname) {
+        return invalidating(requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname, "DELETE", null, new TypeToken<Void>() {}),
+                classroomTests(classroomCode));
+    }
+
+    public CompletableFuture<byte[]> getTestPDFAsync(String classroomCode, String testname) {
+        String endpoint = "/api/classrooms/" + classroomCode + "/tests/" + testname + "/pdf";
+        return coalesce(endpoint, () -> withResilience(URI.create(API_BASE_URL + endpoint), true,
+                () -> supplyAsync(() -> fetchTestPDF(classroomCode, testname))));
     }
 
     public byte[] getTestPDF(String classroomCode, String testname) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/api/classrooms/" + classroomCode + "/tests/" + testname + "/pdf"))
-                .GET()
-                .build();
+        return await(getTestPDFAsync(classroomCode, testname));
+    }
+
+    private byte[] fetchTestPDF(String classroomCode, String testname) throws Exception {
+        String cacheKey = PdfDiskCache.key(classroomCode, testname);
+        PdfDiskCache.Entry cached = pdfCache != null ? pdfCache.lookup(cacheKey) : null;
+        if (cached != null && pdfCache.isFresh(cached)) {
+            byte[] data = pdfCache.read(cacheKey);
+            if (data != null) {
+                metrics.recordCacheLookup("pdf.disk", true);
+                return data;
+            }
+            cached = null;
+        }
+        if (pdfCache != null) metrics.recordCacheLookup("pdf.disk", false);
+
+        URI uri = URI.create(API_BASE_URL + "/api/classrooms/" + classroomCode + "/tests/" + testname + "/pdf");
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(transport.downloadTimeout())
+                .GET();
+        addSessionCookies(requestBuilder, uri);
+        if (cached != null) {
+            if (cached.etag() != null) requestBuilder.header("If-None-Match", cached.etag());
+            if (cached.lastModified() != null) requestBuilder.header("If-Modified-Since", cached.lastModified());
+        }
 
-        HttpResponse<byte[]> response = httpClient.send(request, BodyHandlers.ofByteArray());
+        HttpRequest request = requestBuilder.build();
+        Metrics.RequestTimer timer = metrics.startRequest(request);
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            timer.finish(e);
+            throw e;
+        }
+        storeSessionCookies(response);
+        timer.addBytesIn(response.body().length);
+        timer.finish(response.statusCode() >= 400);
+
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("").toLowerCase();
+        long freshMillis = parseMaxAgeMillis(cacheControl);
+
+        if (response.statusCode() == 304 && cached != null) {
+            pdfCache.markRevalidated(cacheKey, freshMillis);
+            byte[] data = pdfCache.read(cacheKey);
+            if (data != null) return data;
+            return fetchTestPDF(classroomCode, testname);
+        }
 
         if (response.statusCode() >= 400) {
-            throw new IOException("Failed to download PDF: " + response.statusCode());
+            if (response.statusCode() == 404 && pdfCache != null) pdfCache.remove(cacheKey);
+            throw new HttpStatusException(response.statusCode(), "Failed to download PDF: " + response.statusCode(),
+                    parseRetryAfterMillis(response.headers()));
+        }
+
+        if (pdfCache != null && !cacheControl.contains("no-store")) {
+            pdfCache.store(cacheKey, response.body(),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null),
+                    cacheControl.contains("no-cache") ? 0 : freshMillis);
         }
         return response.body();
     }
 
+    private static long parseMaxAgeMillis(String cacheControl) {
+        for (String directive : cacheControl.split(",")) {
+            directive = directive.trim();
+            if (directive.startsWith("max-age=")) {
+                try {
+                    return Long.parseLong(directive.substring("max-age=".length())) * 1000;
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public CompletableFuture<Void> subscribeTestStatus(String classroomCode, String testname, Consumer<String> onStatus) {
+        URI uri = URI.create(API_BASE_URL + "/api/classrooms/" + classroomCode + "/tests/" + testname + "/events");
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(uri)
+                .header("Accept", "text/event-stream")
+                .GET();
+        addSessionCookies(requestBuilder, uri);
+        HttpRequest request = requestBuilder.build();
+
+        CompletableFuture<Void> subscription = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<HttpResponse<Stream<String>>>> sending = new AtomicReference<>();
+        AtomicReference<Stream<String>> openStream = new AtomicReference<>();
+
+        // Timed and guarded like any other call up to the response headers; the stream itself can run for the whole test
+        CompletableFuture<HttpResponse<Stream<String>>> connected = withResilience(uri, false, () -> {
+            Metrics.RequestTimer timer = metrics.startRequest(request);
+            CompletableFuture<HttpResponse<Stream<String>>> send = httpClient.sendAsync(request, BodyHandlers.ofLines());
+            sending.set(send);
+            // A response that arrives after the watcher stopped has nobody else to close it
+            send.thenAccept(response -> {
+                if (subscription.isDone()) response.body().close();
+            });
+            return send.handle((response, error) -> {
+                if (error != null) {
+                    timer.finish(error);
+                    throw new CompletionException(wrapFailure(EdtFutures.unwrap(error)));
+                }
+                storeSessionCookies(response);
+                String contentType = response.headers().firstValue("Content-Type").orElse("");
+                if (response.statusCode() >= 400 || !contentType.startsWith("text/event-stream")) {
+                    response.body().close();
+                    timer.finish(true);
+                    throw new CompletionException(wrapFailure(new HttpStatusException(response.statusCode(),
+                            "Status stream unavailable: " + response.statusCode(), parseRetryAfterMillis(response.headers()))));
+                }
+                timer.finish(false);
+                return response;
+            });
+        });
+
+        connected.whenCompleteAsync((response, error) -> {
+            if (error != null) {
+                subscription.completeExceptionally(EdtFutures.unwrap(error));
+                return;
+            }
+            try (Stream<String> lines = response.body()) {
+                openStream.set(lines);
+                if (subscription.isDone()) return;
+                readEventStream(lines, onStatus);
+                subscription.complete(null);
+            } catch (RuntimeException e) {
+                subscription.completeExceptionally(e);
+            }
+        }, asyncExecutor);
+
+        subscription.whenComplete((ignored, error) -> {
+            if (!subscription.isCancelled()) return;
+            CompletableFuture<HttpResponse<Stream<String>>> send = sending.get();
+            if (send != null) send.cancel(true);
+            Stream<String> lines = openStream.get();
+            if (lines != null) lines.close();
+        });
+        return subscription;
+    }
+
+    private void readEventStream(Stream<String> lines, Consumer<String> onStatus) {
+        StringBuilder data = new StringBuilder();
+        String[] event = {"message"};
+        lines.forEach(line -> {
+            if (line.isEmpty()) {
+                if (!data.isEmpty() && ("status".equals(event[0]) || "message".equals(event[0]))) {
+                    String payload = data.toString().trim();
+                    onStatus.accept(payload.startsWith("{") ? gson.fromJson(payload, Test.class).status() : payload);
+                }
+                data.setLength(0);
+                event[0] = "message";
+            } else if (line.startsWith("event:")) {
+                event[0] = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) data.append('\n');
+                data.append(line.substring(5).trim());
+            }
+        });
+    }
+
     public void submitTest(String classroomCode, String testname, List<String> answers) throws Exception {
-        request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/submit", "POST", answers, new TypeToken<Void>() {});
+        await(submitTestAsync(classroomCode, testname, answers));
+    }
+
+    public CompletableFuture<Void> submitTestAsync(String classroomCode, String testname, List<String> answers) {
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/submit", "POST", answers, new TypeToken<Void>() {});
     }
 
     public void updateTestAnswers(String classroomCode, String testname, List<String> answers) throws Exception {
-        request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/update", "POST", answers, new TypeToken<Void>() {});
+        await(updateTestAnswersAsync(classroomCode, testname, answers));
+    }
+
+    public CompletableFuture<Void> updateTestAnswersAsync(String classroomCode, String testname, List<String> answers) {
+        // The full answer list replaces what the server has, so sending it twice is harmless
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/update", "POST", answers, new TypeToken<Void>() {}, true);
+    }
+
+    public void updateTestAnswersDelta(String classroomCode, String testname, Map<Integer, String> changedAnswers, long version) throws Exception {
+        await(updateTestAnswersDeltaAsync(classroomCode, testname, changedAnswers, version));
+    }
+
+    public CompletableFuture<Void> updateTestAnswersDeltaAsync(String classroomCode, String testname, Map<Integer, String> changedAnswers, long version) {
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/answers", "PATCH",
+                new AnswerDelta(version, changedAnswers), new TypeToken<Void>() {})
+                .whenComplete((ignored, error) -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof ApiException apiError) {
+                        int status = apiError.getStatusCode();
+                        if (status == 404 || status == 405 || status == 501) deltaSaveRejected.set(true);
+                    }
+                });
+    }
+
+    /**
+     * Whether answer saves should send only the changed entries. Off unless
+     * autosave.delta.enabled is set, and off for the rest of the process once
+     * the server has answered a delta save with 404, 405 or 501.
+     */
+    public boolean isDeltaSaveAvailable() {
+        return deltaSaveEnabled && !deltaSaveRejected.get();
     }
 
     public Test getActiveTestForStudent() throws Exception {
-        return request("/api/classrooms/student/active-test", "GET", null, new TypeToken<Test>() {});
+        return await(getActiveTestForStudentAsync());
+    }
+
+    public CompletableFuture<Test> getActiveTestForStudentAsync() {
+        return requestAsync("/api/classrooms/student/active-test", "GET", null, new TypeToken<Test>() {});
     }
 
     public StudentResultDTO getMySubmission(String classroomCode, String testname) throws Exception {
-        return request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/my", "GET", null, new TypeToken<StudentResultDTO>() {});
+        return await(getMySubmissionAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<StudentResultDTO> getMySubmissionAsync(String classroomCode, String testname) {
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions/my", "GET", null, new TypeToken<StudentResultDTO>() {});
     }
 
     public TeacherResultsDTO getAllSubmissions(String classroomCode, String testname) throws Exception {
-        return request("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions", "GET", null, new TypeToken<TeacherResultsDTO>() {});
+        return await(getAllSubmissionsAsync(classroomCode, testname));
+    }
+
+    public CompletableFuture<TeacherResultsDTO> getAllSubmissionsAsync(String classroomCode, String testname) {
+        return requestAsync("/api/classrooms/" + classroomCode + "/tests/" + testname + "/submissions", "GET", null, new TypeToken<TeacherResultsDTO>() {});
     }
 
     public Test createTest(String classroomCode, String testname, java.io.File pdfFile, List<String> correctAnswers) throws Exception {
-        String boundary = "Boundary-" + System.currentTimeMillis();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_BASE_URL + "/api/classrooms/" + classroomCode + "/tests"))
-                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                .POST(ofMimeMultipartData(testname, pdfFile, correctAnswers, boundary))
-                .build();
+        return createTest(classroomCode, testname, pdfFile, correctAnswers, null);
+    }
 
-        HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+    public Test createTest(String classroomCode, String testname, java.io.File pdfFile, List<String> correctAnswers,
+                           MultipartBodyPublisher.ProgressListener progressListener) throws Exception {
+        return await(createTestAsync(classroomCode, testname, pdfFile, correctAnswers, progressListener));
+    }
 
-        if (response.statusCode() >= 400) {
-            try {
-                ApiError error = gson.fromJson(response.body(), ApiError.class);
-                throw new IOException(error.message());
-            } catch (Exception e) {
-                throw new IOException("HTTP Error: " + response.statusCode() + " - " + response.body());
-            }
+    public CompletableFuture<Test> createTestAsync(String classroomCode, String testname, java.io.File pdfFile, List<String> correctAnswers,
+                                                   MultipartBodyPublisher.ProgressListener progressListener) {
+        String boundary = "Boundary-" + System.currentTimeMillis();
+        HttpRequest request;
+        try {
+            MultipartBodyPublisher body = ofMimeMultipartData(testname, pdfFile, correctAnswers, boundary, progressListener);
+            URI uri = URI.create(API_BASE_URL + "/api/classrooms/" + classroomCode + "/tests");
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Content-Type", body.getContentType())
+                    .POST(body);
+            addSessionCookies(requestBuilder, uri);
+            request = requestBuilder.build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(wrapFailure(e));
         }
-
-        return gson.fromJson(response.body(), Test.class);
+        return invalidating(withResilience(request.uri(), false, () -> sendAsync(request, new TypeToken<Test>() {})),
+                classroomTests(classroomCode));
     }
 
-    private HttpRequest.BodyPublisher ofMimeMultipartData(String testname, java.io.File pdfFile, List<String> correctAnswers, String boundary) throws IOException {
-        var byteArrays = new java.util.ArrayList<byte[]>();
-        String crlf = "\r\n";
-
-        byteArrays.add(("--" + boundary + crlf).getBytes());
-        byteArrays.add(("Content-Disposition: form-data; name=\"testname\"" + crlf + crlf).getBytes());
-        byteArrays.add((testname + crlf).getBytes());
-
-        byteArrays.add(("--" + boundary + crlf).getBytes());
-        byteArrays.add(("Content-Disposition: form-data; name=\"pdfFile\"; filename=\"" + pdfFile.getName() + "\"" + crlf).getBytes());
-        byteArrays.add(("Content-Type: application/pdf" + crlf + crlf).getBytes());
-        byteArrays.add(java.nio.file.Files.readAllBytes(pdfFile.toPath()));
-        byteArrays.add((crlf).getBytes());
+    static MultipartBodyPublisher ofMimeMultipartData(String testname, java.io.File pdfFile, List<String> correctAnswers, String boundary,
+                                                      MultipartBodyPublisher.ProgressListener progressListener) throws IOException {
+        MultipartBodyPublisher.Builder builder = MultipartBodyPublisher.newBuilder(boundary)
+                .addText("testname", testname)
+                .addFile("pdfFile", pdfFile.toPath(), "application/pdf");
 
         for (String answer : correctAnswers) {
-            byteArrays.add(("--" + boundary + crlf).getBytes());
-            byteArrays.add(("Content-Disposition: form-data; name=\"correctAnswers\"" + crlf + crlf).getBytes());
-            byteArrays.add((answer + crlf).getBytes());
+            builder.addText("correctAnswers", answer);
         }
 
-        byteArrays.add(("--" + boundary + "--" + crlf).getBytes());
-
-        return HttpRequest.BodyPublishers.ofByteArrays(byteArrays);
+        return builder.build(progressListener);
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.mcq.client.lib;
+
+public class ApiException extends Exception {
+
+    public ApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public int getStatusCode() {
+        return getCause() instanceof HttpStatusException status ? status.getStatusCode() : 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mcq.client.lib;
+
+import java.util.function.Predicate;
+
+/**
+ * Storage for decoded API responses, keyed by endpoint. {@link ApiClient}
+ * decides what is cacheable and for how long; implementations only have to
+ * keep entries until they are replaced, evicted or invalidated.
+ */
+public interface ApiResponseCache {
+
+    record Entry(Object value, long freshUntil, long staleUntil) {
+        public boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        public boolean isUsable(long now) {
+            return now < staleUntil;
+        }
+    }
+
+    record Stats(long hits, long staleHits, long misses, int size) {}
+
+    Entry get(String key);
+
+    void put(String key, Entry entry);
+
+    void invalidateIf(Predicate<String> keyFilter);
+
+    void clear();
+
+    int size();
+}
@@ -0,0 +1,58 @@
+package com.mcq.client.lib;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class AppConfig {
+
+    private static AppConfig instance;
+    private final Properties props = new Properties();
+
+    private AppConfig() {
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (in != null) {
+                props.load(in);
+            } else {
+                System.err.println("WARNING: application.properties not found. Using defaults.");
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to load application.properties. Using defaults.");
+            e.printStackTrace();
+        }
+    }
+
+    public static synchronized AppConfig getInstance() {
+        if (instance == null) {
+            instance = new AppConfig();
+        }
+        return instance;
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = System.getProperty(key, props.getProperty(key));
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("WARNING: Invalid value for " + key + ". Defaulting to " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("WARNING: Invalid value for " + key + ". Defaulting to " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.mcq.client.lib;
+
+import java.nio.file.Path;
+
+public class AppDirectories {
+
+    private static final String APP_NAME = "mcq-client";
+
+    public static Path cacheDir() {
+        String override = AppConfig.getInstance().get("app.cache.dir", null);
+        if (override != null) return Path.of(override);
+
+        String home = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("win")) {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            Path base = localAppData != null ? Path.of(localAppData) : Path.of(home, "AppData", "Local");
+            return base.resolve(APP_NAME).resolve("cache");
+        }
+        if (os.contains("mac")) {
+            return Path.of(home, "Library", "Caches", APP_NAME);
+        }
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        Path base = (xdgCache != null && !xdgCache.isBlank()) ? Path.of(xdgCache) : Path.of(home, ".cache");
+        return base.resolve(APP_NAME);
+    }
+
+    public static Path dataDir() {
+        String override = AppConfig.getInstance().get("app.data.dir", null);
+        if (override != null) return Path.of(override);
+
+        String home = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("win")) {
+            String appData = System.getenv("APPDATA");
+            Path base = appData != null ? Path.of(appData) : Path.of(home, "AppData", "Roaming");
+            return base.resolve(APP_NAME);
+        }
+        if (os.contains("mac")) {
+            return Path.of(home, "Library", "Application Support", APP_NAME);
+        }
+        String xdgData = System.getenv("XDG_DATA_HOME");
+        Path base = (xdgData != null && !xdgData.isBlank()) ? Path.of(xdgData) : Path.of(home, ".local", "share");
+        return base.resolve(APP_NAME);
+    }
+}
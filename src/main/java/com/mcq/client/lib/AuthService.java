@@ -11,11 +11,9 @@ public class AuthService {
     private static AuthService instance;
     private User user;
     private final PropertyChangeSupport support;
-    private final ApiClient apiClient;
 
     private AuthService() {
         this.support = new PropertyChangeSupport(this);
-        this.apiClient = ApiClient.getInstance();
     }
 
     public static synchronized AuthService getInstance() {
@@ -49,18 +47,18 @@ public class AuthService {
     }
 
     public void login(String username, String password) throws Exception {
-        apiClient.login(username, password);
-        User userData = apiClient.getUserByUsername(username);
+        ApiClient.getInstance().login(username, password);
+        User userData = ApiClient.getInstance().getUserByUsername(username);
         setUser(userData);
     }
 
     public void register(Models.RegisterRequest request) throws Exception {
-        apiClient.register(request);
+        ApiClient.getInstance().register(request);
     }
 
     public void logout() {
         try {
-            apiClient.logout();
+            ApiClient.getInstance().logout();
         } catch (Exception e) {
             System.err.println("Failed to logout on server: " + e.getMessage());
         } finally {
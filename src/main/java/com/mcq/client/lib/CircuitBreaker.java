@@ -0,0 +1,94 @@
+package com.mcq.client.lib;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-host breaker: after a run of consecutive failures, or when the server
+ * sends 503 with Retry-After, requests fail fast until the open period has
+ * passed. Then a single probe is let through, and its outcome decides whether
+ * the breaker closes again or stays open for another period. Callers turned
+ * away during the probe can wait on {@link #pendingProbe()} instead of a
+ * whole open period.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openUntil = 0;
+    private CompletableFuture<Void> probe;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now >= openUntil) {
+            state = State.HALF_OPEN;
+            settleProbe();
+        }
+        if (state == State.HALF_OPEN && probe == null) {
+            probe = new CompletableFuture<>();
+            return true;
+        }
+        return false;
+    }
+
+    // Milliseconds until a request may be attempted again; 0 when one may go now
+    public synchronized long remainingOpenMillis() {
+        if (state == State.CLOSED) return 0;
+        if (state == State.HALF_OPEN) return 0;
+        return Math.max(0, openUntil - System.currentTimeMillis());
+    }
+
+    // Completes once the probe currently in flight has an outcome; null when there is none
+    public synchronized CompletableFuture<Void> pendingProbe() {
+        return probe;
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        settleProbe();
+    }
+
+    // For a probe that ended without saying anything about the server, e.g. because it was cancelled
+    public synchronized void releaseProbe() {
+        settleProbe();
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open(openMillis);
+        }
+    }
+
+    public synchronized void openFor(long millis) {
+        open(Math.max(millis, 0));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open(long millis) {
+        state = State.OPEN;
+        settleProbe();
+        openUntil = Math.max(openUntil, System.currentTimeMillis() + millis);
+    }
+
+    private void settleProbe() {
+        if (probe != null) {
+            probe.complete(null);
+            probe = null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mcq.client.lib;
+
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Bridges {@link ApiClient}'s async calls back onto the Event Dispatch Thread.
+ */
+public class EdtFutures {
+
+    public static <T> CompletableFuture<T> onEdt(CompletableFuture<T> future,
+                                                 Consumer<? super T> onSuccess,
+                                                 Consumer<? super Throwable> onFailure) {
+        future.whenComplete((result, error) -> {
+            if (error != null && unwrap(error) instanceof CancellationException) return;
+            SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(result);
+                } else {
+                    onFailure.accept(unwrap(error));
+                }
+            });
+        });
+        return future;
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
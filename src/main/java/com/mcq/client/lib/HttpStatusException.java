@@ -0,0 +1,28 @@
+package com.mcq.client.lib;
+
+import java.io.IOException;
+
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    public HttpStatusException(int statusCode, String message) {
+        this(statusCode, message, -1);
+    }
+
+    public HttpStatusException(int statusCode, String message, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // How long the server asked us to wait via Retry-After, or -1 if it did not say
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mcq.client.lib;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory {@link ApiResponseCache} that holds at most a fixed number of
+ * entries and drops the least recently used one when full. Entries past
+ * their stale deadline are discarded on lookup.
+ */
+public class LruResponseCache implements ApiResponseCache {
+
+    private final Map<String, Entry> entries;
+
+    public LruResponseCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isUsable(System.currentTimeMillis())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    @Override
+    public synchronized void invalidateIf(Predicate<String> keyFilter) {
+        entries.keySet().removeIf(keyFilter);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,226 @@
+package com.mcq.client.lib;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javax.swing.*;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process instrumentation: per-endpoint latency, bytes and errors, PDF
+ * render times, cache hit rates and Event Dispatch Thread lag. Everything is
+ * lock-free to record and can be read at any time as a {@link Snapshot}.
+ */
+public class Metrics {
+
+    public record EndpointSummary(String endpoint, LatencyHistogram.Summary latency, long bytesOut, long bytesIn, long errors) {}
+
+    public record CacheSummary(long hits, long misses, double hitRate) {}
+
+    public record Snapshot(Instant takenAt, long uptimeMillis, List<EndpointSummary> endpoints,
+                           LatencyHistogram.Summary pdfRender, LatencyHistogram.Summary edtLag,
+                           Map<String, CacheSummary> caches, Map<String, Object> gauges) {}
+
+    // Path segments that are followed by an id, collapsed so each endpoint is one series
+    private static final Set<String> ID_COLLECTIONS = Set.of("classrooms", "tests", "users", "remove");
+    // Fixed route words that can follow one of those collections and are never ids
+    private static final Set<String> FIXED_SEGMENTS = Set.of("student", "mine", "join");
+
+    private static Metrics instance;
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, CacheCounter> caches = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<?>> gauges = new ConcurrentHashMap<>();
+    private final LatencyHistogram pdfRender = new LatencyHistogram();
+    private final LatencyHistogram edtLag = new LatencyHistogram();
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+    private ScheduledExecutorService edtProbe;
+
+    private Metrics() {
+    }
+
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+        }
+        return instance;
+    }
+
+    public static String endpointKey(String method, URI uri) {
+        String[] segments = uri.getPath().split("/");
+        StringBuilder key = new StringBuilder(method).append(' ');
+        for (int i = 1; i < segments.length; i++) {
+            boolean id = ID_COLLECTIONS.contains(segments[i - 1]) && !FIXED_SEGMENTS.contains(segments[i]);
+            key.append('/').append(id ? "{id}" : segments[i]);
+        }
+        return key.toString();
+    }
+
+    public RequestTimer startRequest(HttpRequest request) {
+        long bytesOut = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+        return new RequestTimer(endpoints.computeIfAbsent(endpointKey(request.method(), request.uri()),
+                key -> new EndpointMetrics()), Math.max(0, bytesOut));
+    }
+
+    public void recordPdfRender(long nanos) {
+        pdfRender.recordNanos(nanos);
+    }
+
+    public void recordCacheLookup(String cache, boolean hit) {
+        CacheCounter counter = caches.computeIfAbsent(cache, key -> new CacheCounter());
+        (hit ? counter.hits : counter.misses).increment();
+    }
+
+    public void registerGauge(String name, Supplier<?> value) {
+        gauges.put(name, value);
+    }
+
+    /** Posts a no-op to the EDT every interval and records how long it waited to run. */
+    public synchronized void startEdtLagProbe(long intervalMillis) {
+        if (edtProbe != null || intervalMillis <= 0) return;
+        AtomicBoolean pending = new AtomicBoolean();
+        edtProbe = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-lag-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        edtProbe.scheduleAtFixedRate(() -> {
+            // A blocked EDT shows up as one long sample instead of a backlog of probes
+            if (!pending.compareAndSet(false, true)) return;
+            long posted = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                edtLag.recordNanos(System.nanoTime() - posted);
+                pending.set(false);
+            });
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Snapshot snapshot() {
+        List<EndpointSummary> endpointSummaries = new ArrayList<>();
+        endpoints.forEach((endpoint, m) -> endpointSummaries.add(new EndpointSummary(endpoint, m.latency.summary(),
+                m.bytesOut.sum(), m.bytesIn.sum(), m.errors.sum())));
+        endpointSummaries.sort(Comparator.comparing(EndpointSummary::endpoint));
+
+        Map<String, CacheSummary> cacheSummaries = new TreeMap<>();
+        caches.forEach((name, counter) -> {
+            long hits = counter.hits.sum();
+            long misses = counter.misses.sum();
+            cacheSummaries.put(name, new CacheSummary(hits, misses, hits + misses == 0 ? 0 : (double) hits / (hits + misses)));
+        });
+
+        Map<String, Object> gaugeValues = new LinkedHashMap<>();
+        new TreeMap<>(gauges).forEach((name, supplier) -> {
+            try {
+                gaugeValues.put(name, supplier.get());
+            } catch (RuntimeException e) {
+                gaugeValues.put(name, "unavailable: " + e.getMessage());
+            }
+        });
+
+        return new Snapshot(Instant.now(), System.currentTimeMillis() - startedAt, endpointSummaries,
+                pdfRender.summary(), edtLag.summary(), cacheSummaries, gaugeValues);
+    }
+
+    public String toJson() {
+        Snapshot snapshot = snapshot();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("takenAt", snapshot.takenAt().toString());
+        json.put("uptimeMillis", snapshot.uptimeMillis());
+        json.put("javaVersion", System.getProperty("java.version"));
+        json.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        json.put("endpoints", snapshot.endpoints());
+        json.put("pdfRender", snapshot.pdfRender());
+        json.put("edtLag", snapshot.edtLag());
+        json.put("caches", snapshot.caches());
+        json.put("gauges", snapshot.gauges());
+        return gson.toJson(json);
+    }
+
+    public Path dumpJson(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("diagnostics-" + System.currentTimeMillis() + ".json");
+        Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static class EndpointMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private static class CacheCounter {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+    }
+
+    /** One request in flight; bytes in are counted as the body is read, so they are wire (compressed) bytes. */
+    public static class RequestTimer {
+        private final EndpointMetrics metrics;
+        private final long bytesOut;
+        private final long startNanos = System.nanoTime();
+        private final LongAdder bytesIn = new LongAdder();
+
+        private RequestTimer(EndpointMetrics metrics, long bytesOut) {
+            this.metrics = metrics;
+            this.bytesOut = bytesOut;
+        }
+
+        public InputStream countBytesIn(InputStream body) {
+            return new FilterInputStream(body) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) bytesIn.increment();
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) bytesIn.add(n);
+                    return n;
+                }
+            };
+        }
+
+        public void addBytesIn(long bytes) {
+            bytesIn.add(bytes);
+        }
+
+        public void finish(Throwable error) {
+            finish(error != null);
+        }
+
+        public void finish(boolean failed) {
+            metrics.latency.recordNanos(System.nanoTime() - startNanos);
+            metrics.bytesOut.add(bytesOut);
+            metrics.bytesIn.add(bytesIn.sum());
+            if (failed) metrics.errors.increment();
+        }
+    }
+}
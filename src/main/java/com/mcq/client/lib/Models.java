@@ -1,6 +1,7 @@
 package com.mcq.client.lib;
 
 import java.util.List;
+import java.util.Map;
 
 public class Models {
 
@@ -55,5 +56,7 @@ public class Models {
             List<StudentResultDTO> submissions
     ) {}
 
+    public record AnswerDelta(long version, Map<Integer, String> answers) {}
+
     public record ApiError(String message) {}
 }
\ No newline at end of file
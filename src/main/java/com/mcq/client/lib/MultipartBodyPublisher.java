@@ -0,0 +1,117 @@
+package com.mcq.client.lib;
+
+import java.io.FileNotFoundException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * multipart/form-data body that streams file parts from disk in chunks
+ * instead of holding them in memory, and reports how many bytes have been
+ * handed to the HTTP client.
+ */
+public class MultipartBodyPublisher implements HttpRequest.BodyPublisher {
+
+    public interface ProgressListener {
+        void onProgress(long bytesSent, long totalBytes);
+    }
+
+    private static final String CRLF = "\r\n";
+
+    private final HttpRequest.BodyPublisher delegate;
+    private final String boundary;
+    private final ProgressListener listener;
+
+    private MultipartBodyPublisher(HttpRequest.BodyPublisher delegate, String boundary, ProgressListener listener) {
+        this.delegate = delegate;
+        this.boundary = boundary;
+        this.listener = listener;
+    }
+
+    public static Builder newBuilder(String boundary) {
+        return new Builder(boundary);
+    }
+
+    public String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        if (listener == null) {
+            delegate.subscribe(subscriber);
+            return;
+        }
+        delegate.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            private long sent = 0;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                int size = item.remaining();
+                subscriber.onNext(item);
+                sent += size;
+                listener.onProgress(sent, contentLength());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    public static class Builder {
+        private final String boundary;
+        private final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+
+        private Builder(String boundary) {
+            this.boundary = boundary;
+        }
+
+        public Builder addText(String name, String value) {
+            parts.add(bytes("--" + boundary + CRLF
+                    + "Content-Disposition: form-data; name=\"" + name + "\"" + CRLF + CRLF
+                    + value + CRLF));
+            return this;
+        }
+
+        public Builder addFile(String name, Path file, String contentType) throws FileNotFoundException {
+            parts.add(bytes("--" + boundary + CRLF
+                    + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + file.getFileName() + "\"" + CRLF
+                    + "Content-Type: " + contentType + CRLF + CRLF));
+            parts.add(HttpRequest.BodyPublishers.ofFile(file));
+            parts.add(bytes(CRLF));
+            return this;
+        }
+
+        public MultipartBodyPublisher build(ProgressListener listener) {
+            List<HttpRequest.BodyPublisher> all = new ArrayList<>(parts);
+            all.add(bytes("--" + boundary + "--" + CRLF));
+            HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(all.toArray(new HttpRequest.BodyPublisher[0]));
+            return new MultipartBodyPublisher(body, boundary, listener);
+        }
+
+        private static HttpRequest.BodyPublisher bytes(String text) {
+            return HttpRequest.BodyPublishers.ofByteArray(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
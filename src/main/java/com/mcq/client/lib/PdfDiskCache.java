@@ -0,0 +1,278 @@
+package com.mcq.client.lib;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded on-disk cache for test PDFs. Blobs are stored by SHA-256 of
+ * their content, and a small JSON index maps "classroom/test" keys to a blob
+ * plus the validators needed for conditional requests. Content is hashed
+ * when it is stored; hits only check the blob's size and are read outside
+ * the lock, so concurrent loads don't queue behind each other. Access times
+ * and revalidations only change the index in memory; it is written shortly
+ * afterwards, or straight away when entries are added or removed.
+ */
+public class PdfDiskCache {
+
+    public record Entry(
+            String sha256,
+            String etag,
+            String lastModified,
+            long size,
+            long freshUntil,
+            long lastAccess
+    ) {}
+
+    private final Path directory;
+    private final Path blobDirectory;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final long defaultFreshMillis;
+    private static final long DEFERRED_SAVE_MILLIS = 5000;
+
+    private static final ScheduledExecutorService INDEX_WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pdf-cache-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // One hook for the whole process writes out whatever deferred saves are still pending.
+    // Weak references let caches that are no longer used go away; one with a pending save
+    // stays reachable through its scheduled task until the save has run.
+    private static final Set<PdfDiskCache> OPEN_CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            List<PdfDiskCache> caches;
+            synchronized (OPEN_CACHES) {
+                caches = List.copyOf(OPEN_CACHES);
+            }
+            caches.forEach(PdfDiskCache::flush);
+        }, "pdf-cache-flush"));
+    }
+
+    private final Gson gson = new Gson();
+    private final Map<String, Entry> index;
+    private ScheduledFuture<?> pendingSave;
+
+    public PdfDiskCache(Path directory, long maxBytes, long defaultFreshMillis) {
+        this.directory = directory;
+        this.blobDirectory = directory.resolve("blobs");
+        this.indexFile = directory.resolve("index.json");
+        this.maxBytes = maxBytes;
+        this.defaultFreshMillis = defaultFreshMillis;
+        this.index = loadIndex();
+        synchronized (OPEN_CACHES) {
+            OPEN_CACHES.add(this);
+        }
+    }
+
+    public static String key(String classroomCode, String testname) {
+        return classroomCode + "/" + testname;
+    }
+
+    public synchronized Entry lookup(String key) {
+        Entry entry = index.get(key);
+        if (entry != null && !Files.exists(blobPath(entry.sha256()))) {
+            index.remove(key);
+            saveIndex();
+            return null;
+        }
+        return entry;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() < entry.freshUntil();
+    }
+
+    public byte[] read(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = index.get(key);
+        }
+        if (entry == null) return null;
+        try {
+            byte[] data = Files.readAllBytes(blobPath(entry.sha256()));
+            if (data.length != entry.size()) {
+                System.err.println("Discarding corrupt cached PDF for " + key);
+                removeIfUnchanged(key, entry);
+                return null;
+            }
+            synchronized (this) {
+                if (entry.equals(index.get(key))) {
+                    index.put(key, withAccess(entry, entry.freshUntil()));
+                    saveIndexLater();
+                }
+            }
+            return data;
+        } catch (IOException e) {
+            System.err.println("Failed to read cached PDF: " + e.getMessage());
+            removeIfUnchanged(key, entry);
+            return null;
+        }
+    }
+
+    public synchronized void markRevalidated(String key, long freshMillis) {
+        Entry entry = index.get(key);
+        if (entry == null) return;
+        index.put(key, withAccess(entry, System.currentTimeMillis() + freshMillis(freshMillis)));
+        saveIndexLater();
+    }
+
+    public synchronized void store(String key, byte[] data, String etag, String lastModified, long freshMillis) {
+        try {
+            String hash = sha256(data);
+            Path blob = blobPath(hash);
+            // An existing blob with the same hash is only trusted if it is complete
+            if (!Files.exists(blob) || Files.size(blob) != data.length) {
+                Files.createDirectories(blobDirectory);
+                Path temp = Files.createTempFile(blobDirectory, hash, ".tmp");
+                Files.write(temp, data);
+                move(temp, blob);
+            }
+            Entry previous = index.put(key, new Entry(hash, etag, lastModified, data.length,
+                    System.currentTimeMillis() + freshMillis(freshMillis), System.currentTimeMillis()));
+            if (previous != null && !previous.sha256().equals(hash)) {
+                deleteBlobIfUnused(previous.sha256());
+            }
+            evict();
+            saveIndex();
+        } catch (IOException e) {
+            System.err.println("Failed to cache PDF: " + e.getMessage());
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry entry = index.remove(key);
+        if (entry != null) {
+            deleteBlobIfUnused(entry.sha256());
+            saveIndex();
+        }
+    }
+
+    private synchronized void removeIfUnchanged(String key, Entry entry) {
+        if (entry.equals(index.get(key))) remove(key);
+    }
+
+    // Writes out index changes that are still waiting for their deferred save
+    public synchronized void flush() {
+        if (pendingSave != null) saveIndex();
+    }
+
+    private long freshMillis(long freshMillis) {
+        return freshMillis >= 0 ? freshMillis : defaultFreshMillis;
+    }
+
+    private Entry withAccess(Entry entry, long freshUntil) {
+        return new Entry(entry.sha256(), entry.etag(), entry.lastModified(), entry.size(), freshUntil, System.currentTimeMillis());
+    }
+
+    private void evict() {
+        // Entries sharing a blob only count once against the budget
+        Map<String, Long> blobSizes = new HashMap<>();
+        index.values().forEach(e -> blobSizes.put(e.sha256(), e.size()));
+        long total = blobSizes.values().stream().mapToLong(Long::longValue).sum();
+
+        while (total > maxBytes && !index.isEmpty()) {
+            String eldestKey = null;
+            Entry eldest = null;
+            for (Map.Entry<String, Entry> e : index.entrySet()) {
+                if (eldest == null || e.getValue().lastAccess() < eldest.lastAccess()) {
+                    eldestKey = e.getKey();
+                    eldest = e.getValue();
+                }
+            }
+            index.remove(eldestKey);
+            if (deleteBlobIfUnused(eldest.sha256())) {
+                total -= eldest.size();
+            }
+        }
+    }
+
+    private boolean deleteBlobIfUnused(String hash) {
+        boolean inUse = index.values().stream().anyMatch(e -> e.sha256().equals(hash));
+        if (inUse) return false;
+        try {
+            Files.deleteIfExists(blobPath(hash));
+        } catch (IOException e) {
+            System.err.println("Failed to delete cached PDF: " + e.getMessage());
+        }
+        return true;
+    }
+
+    private Path blobPath(String hash) {
+        return blobDirectory.resolve(hash + ".pdf");
+    }
+
+    private Map<String, Entry> loadIndex() {
+        if (!Files.exists(indexFile)) return new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            Map<String, Entry> loaded = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {}.getType());
+            return loaded != null ? new HashMap<>(loaded) : new HashMap<>();
+        } catch (Exception e) {
+            System.err.println("WARNING: PDF cache index unreadable, starting empty: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private void saveIndexLater() {
+        if (pendingSave == null) {
+            pendingSave = INDEX_WRITER.schedule(this::flush, DEFERRED_SAVE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void saveIndex() {
+        if (pendingSave != null) {
+            pendingSave.cancel(false);
+            pendingSave = null;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "index", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(index, writer);
+            }
+            move(temp, indexFile);
+        } catch (IOException e) {
+            System.err.println("Failed to save PDF cache index: " + e.getMessage());
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
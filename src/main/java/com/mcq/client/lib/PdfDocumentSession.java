@@ -0,0 +1,100 @@
+package com.mcq.client.lib;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Keeps a parsed PDF open so pages can be rendered repeatedly without
+ * re-loading the whole document. PDFBox documents are not thread-safe,
+ * so every access goes through this object's monitor.
+ */
+public class PdfDocumentSession implements AutoCloseable {
+
+    private final PDDocument document;
+    private final PDFRenderer renderer;
+    private boolean closed = false;
+
+    public PdfDocumentSession(byte[] pdfData) throws IOException {
+        this.document = Loader.loadPDF(pdfData);
+        this.renderer = new PDFRenderer(document);
+        this.renderer.setSubsamplingAllowed(true);
+    }
+
+    public synchronized int getPageCount() {
+        return closed ? 0 : document.getNumberOfPages();
+    }
+
+    public synchronized BufferedImage renderPage(int pageIndex, float dpi) throws IOException {
+        if (closed) {
+            throw new IOException("PDF session is closed");
+        }
+        if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException("Page index is out of bounds");
+        }
+        long start = System.nanoTime();
+        BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi);
+        Metrics.getInstance().recordPdfRender(System.nanoTime() - start);
+        return image;
+    }
+
+    public synchronized BufferedImage renderPageToWidth(int pageIndex, int targetPixelWidth) throws IOException {
+        if (closed) {
+            throw new IOException("PDF session is closed");
+        }
+        if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException("Page index is out of bounds");
+        }
+        PDPage page = document.getPage(pageIndex);
+        PDRectangle cropBox = page.getCropBox();
+        boolean rotated = page.getRotation() % 180 != 0;
+        float pageWidthPoints = rotated ? cropBox.getHeight() : cropBox.getWidth();
+
+        // renderImage's scale is pixels per PDF point, so this lands exactly on the target width
+        float scale = targetPixelWidth / pageWidthPoints;
+        long start = System.nanoTime();
+        BufferedImage image = renderer.renderImage(pageIndex, scale, ImageType.RGB);
+        Metrics.getInstance().recordPdfRender(System.nanoTime() - start);
+        return image;
+    }
+
+    public ImageIcon getScaledPage(int pageIndex, int targetWidth) {
+        return getScaledPage(pageIndex, targetWidth, 1.0);
+    }
+
+    public ImageIcon getScaledPage(int pageIndex, int targetWidth, double deviceScale) {
+        try {
+            if (targetWidth <= 0) {
+                return new ImageIcon(renderPage(pageIndex, 150));
+            }
+            int pixelWidth = (int) Math.round(targetWidth * deviceScale);
+            return new PdfPageIcon(renderPageToWidth(pageIndex, pixelWidth), targetWidth);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            document.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close PDF document: " + e.getMessage());
+        }
+    }
+}
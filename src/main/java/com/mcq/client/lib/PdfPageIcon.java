@@ -0,0 +1,41 @@
+package com.mcq.client.lib;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * An icon backed by a page rendered at device resolution. It reports its
+ * logical size to Swing and draws the full-resolution raster into that box,
+ * which on a HiDPI screen maps one image pixel to one device pixel.
+ */
+public class PdfPageIcon extends ImageIcon {
+
+    private final int width;
+    private final int height;
+
+    public PdfPageIcon(BufferedImage image, int logicalWidth) {
+        super(image);
+        this.width = logicalWidth;
+        this.height = (int) Math.round((double) image.getHeight() * logicalWidth / image.getWidth());
+    }
+
+    public BufferedImage getBufferedImage() {
+        return (BufferedImage) getImage();
+    }
+
+    @Override
+    public int getIconWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIconHeight() {
+        return height;
+    }
+
+    @Override
+    public synchronized void paintIcon(Component c, Graphics g, int x, int y) {
+        g.drawImage(getImage(), x, y, width, height, getImageObserver() != null ? getImageObserver() : c);
+    }
+}
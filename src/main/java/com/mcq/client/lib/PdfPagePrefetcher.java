@@ -0,0 +1,153 @@
+package com.mcq.client.lib;
+
+import javax.swing.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders pages of a {@link PdfDocumentSession} on a single background thread.
+ * Pages the user asks for jump ahead of queued prefetches, and finished pages
+ * are kept in a small LRU cache keyed by page and width.
+ */
+public class PdfPagePrefetcher implements AutoCloseable {
+
+    private static final int DEMAND_PRIORITY = 0;
+
+    private final PdfDocumentSession session;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, ImageIcon> cache;
+    private final Map<Long, RenderTask> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public PdfPagePrefetcher(PdfDocumentSession session, int cacheSize) {
+        this.session = session;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ImageIcon> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "pdf-prefetch");
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor.prestartCoreThread();
+    }
+
+    public ImageIcon getCached(int pageIndex, int width, double deviceScale) {
+        synchronized (cache) {
+            return cache.get(key(pageIndex, width, deviceScale));
+        }
+    }
+
+    public CompletableFuture<ImageIcon> request(int pageIndex, int width, double deviceScale) {
+        ImageIcon cached = getCached(pageIndex, width, deviceScale);
+        Metrics.getInstance().recordCacheLookup("pdf.pages", cached != null);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long key = key(pageIndex, width, deviceScale);
+        RenderTask existing = pending.get(key);
+        if (existing != null) {
+            if (existing.priority != DEMAND_PRIORITY && executor.getQueue().remove(existing)) {
+                existing.priority = DEMAND_PRIORITY;
+                executor.getQueue().add(existing);
+            }
+            return existing.result;
+        }
+        return submit(pageIndex, width, deviceScale, DEMAND_PRIORITY).result;
+    }
+
+    public void prefetch(List<Integer> pageIndexes, int width, double deviceScale) {
+        executor.getQueue().removeIf(r -> {
+            RenderTask task = (RenderTask) r;
+            if (task.priority == DEMAND_PRIORITY) return false;
+            pending.remove(task.key, task);
+            task.result.cancel(false);
+            return true;
+        });
+
+        int priority = DEMAND_PRIORITY + 1;
+        for (int pageIndex : pageIndexes) {
+            long key = key(pageIndex, width, deviceScale);
+            if (getCached(pageIndex, width, deviceScale) == null && !pending.containsKey(key)) {
+                submit(pageIndex, width, deviceScale, priority);
+            }
+            priority++;
+        }
+    }
+
+    private RenderTask submit(int pageIndex, int width, double deviceScale, int priority) {
+        RenderTask task = new RenderTask(pageIndex, width, deviceScale, priority, sequence.getAndIncrement());
+        pending.put(task.key, task);
+        executor.execute(task);
+        return task;
+    }
+
+    private static long key(int pageIndex, int width, double deviceScale) {
+        int pixelWidth = (int) Math.round(width * deviceScale);
+        return ((long) pageIndex << 40) | ((long) (width & 0xFFFFF) << 20) | (pixelWidth & 0xFFFFF);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pending.values().forEach(task -> task.result.cancel(false));
+        pending.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private class RenderTask implements Runnable, Comparable<RenderTask> {
+        final int pageIndex;
+        final int width;
+        final double deviceScale;
+        final long key;
+        final long seq;
+        final CompletableFuture<ImageIcon> result = new CompletableFuture<>();
+        volatile int priority;
+
+        RenderTask(int pageIndex, int width, double deviceScale, int priority, long seq) {
+            this.pageIndex = pageIndex;
+            this.width = width;
+            this.deviceScale = deviceScale;
+            this.key = key(pageIndex, width, deviceScale);
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) return;
+            try {
+                ImageIcon icon = session.getScaledPage(pageIndex, width, deviceScale);
+                if (icon != null) {
+                    synchronized (cache) {
+                        cache.put(key, icon);
+                    }
+                }
+                result.complete(icon);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                pending.remove(key, this);
+            }
+        }
+
+        @Override
+        public int compareTo(RenderTask other) {
+            int cmp = Integer.compare(priority, other.priority);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+}
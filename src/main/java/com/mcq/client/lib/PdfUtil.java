@@ -1,9 +1,5 @@
 package com.mcq.client.lib;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
-
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -12,12 +8,8 @@ import java.io.IOException;
 public class PdfUtil {
 
     public static BufferedImage renderPage(byte[] pdfData, int pageIndex) {
-        try (PDDocument document = Loader.loadPDF(pdfData)) {
-            if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
-                throw new IndexOutOfBoundsException("Page index is out of bounds");
-            }
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            return pdfRenderer.renderImageWithDPI(pageIndex, 150);
+        try (PdfDocumentSession session = new PdfDocumentSession(pdfData)) {
+            return session.renderPage(pageIndex, 150);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -25,31 +17,29 @@ public class PdfUtil {
     }
 
     public static ImageIcon getScaledPdfPage(byte[] pdfData, int pageIndex, int targetWidth) {
-        try (PDDocument document = Loader.loadPDF(pdfData)) {
-            if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
-                throw new IndexOutOfBoundsException("Page index is out of bounds");
-            }
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            BufferedImage image = pdfRenderer.renderImageWithDPI(pageIndex, 150);
-
-            if (targetWidth <= 0) targetWidth = image.getWidth();
-
-            int targetHeight = (int) (((double) image.getHeight() / image.getWidth()) * targetWidth);
-            Image scaledImage = image.getScaledInstance(targetWidth, targetHeight, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImage);
-
+        try (PdfDocumentSession session = new PdfDocumentSession(pdfData)) {
+            return session.getScaledPage(pageIndex, targetWidth);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    public static double getDeviceScale(Component component) {
+        GraphicsConfiguration gc = component != null ? component.getGraphicsConfiguration() : null;
+        if (gc == null) {
+            if (GraphicsEnvironment.isHeadless()) return 1.0;
+            gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        return Math.max(1.0, gc.getDefaultTransform().getScaleX());
+    }
+
     public static int getPageCount(byte[] pdfData) {
-        try (PDDocument document = Loader.loadPDF(pdfData)) {
-            return document.getNumberOfPages();
+        try (PdfDocumentSession session = new PdfDocumentSession(pdfData)) {
+            return session.getPageCount();
         } catch (IOException e) {
             e.printStackTrace();
             return 0;
         }
     }
-}
\ No newline at end of file
+}
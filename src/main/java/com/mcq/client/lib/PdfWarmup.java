@@ -0,0 +1,65 @@
+package com.mcq.client.lib;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pays PDFBox's one-off costs on a background thread while the user is still
+ * on the login screen: class loading, the parser and renderer, and the scan
+ * of installed system fonts that the first non-embedded font triggers. A
+ * small generated page is written, parsed back and rendered to cover all of
+ * them.
+ */
+public final class PdfWarmup {
+
+    private static CompletableFuture<Void> result;
+
+    private PdfWarmup() {
+    }
+
+    public static synchronized CompletableFuture<Void> start() {
+        if (result != null) return result;
+        result = new CompletableFuture<>();
+        Thread thread = new Thread(PdfWarmup::run, "pdf-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return result;
+    }
+
+    private static void run() {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PDDocument document = new PDDocument()) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 720);
+                    content.showText("1. Which of the following is correct?");
+                    content.endText();
+                }
+                document.save(out);
+            }
+            try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+                new PDFRenderer(document).renderImageWithDPI(0, 36, ImageType.RGB);
+            }
+            StartupTimings.mark("PDF engine warm");
+            result.complete(null);
+        } catch (Throwable t) {
+            System.err.println("PDF warm-up failed: " + t.getMessage());
+            result.completeExceptionally(t);
+        }
+    }
+}
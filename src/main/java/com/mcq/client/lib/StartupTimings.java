@@ -0,0 +1,41 @@
+package com.mcq.client.lib;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wall-clock milestones of application startup, measured from process
+ * launch, published as the "startup" gauge in {@link Metrics}. With
+ * startup.log=true each phase is also printed as it is reached.
+ */
+public final class StartupTimings {
+
+    private static final long processStart = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    private static final Map<String, Long> phases = new LinkedHashMap<>();
+    private static final boolean log = AppConfig.getInstance().getBoolean("startup.log", false);
+    private static long lastMark = processStart;
+
+    static {
+        Metrics.getInstance().registerGauge("startup", StartupTimings::phases);
+    }
+
+    private StartupTimings() {
+    }
+
+    public static synchronized void mark(String phase) {
+        long now = System.currentTimeMillis();
+        if (phases.containsKey(phase)) return;
+        phases.put(phase, now - processStart);
+        if (log) {
+            System.out.println("Startup: " + phase + " at " + (now - processStart) + " ms (+" + (now - lastMark) + " ms)");
+        }
+        lastMark = now;
+    }
+
+    public static synchronized Map<String, Long> phases() {
+        return new LinkedHashMap<>(phases);
+    }
+}
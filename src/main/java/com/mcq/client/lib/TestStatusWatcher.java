@@ -0,0 +1,128 @@
+package com.mcq.client.lib;
+
+import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Tells a test viewer when the test's status changes. It listens on the
+ * server's event stream when one is available and falls back to polling
+ * getTest, backing off while requests fail. Callbacks run on the EDT.
+ */
+public class TestStatusWatcher {
+
+    private final ApiClient apiClient;
+    private final String classroomCode;
+    private final String testname;
+    private final Consumer<String> onStatus;
+
+    private final int basePollMillis;
+    private final int maxPollMillis;
+    private final int pushRetryMillis;
+    private final boolean pushEnabled;
+
+    private final Timer pollTimer;
+    private final Timer pushRetryTimer;
+    private CompletableFuture<Void> pushSubscription;
+    private CompletableFuture<Models.Test> pollRequest;
+    private int pollDelayMillis;
+    private boolean pushUnsupported = false;
+    private boolean running = false;
+
+    public TestStatusWatcher(ApiClient apiClient, String classroomCode, String testname, Consumer<String> onStatus) {
+        this.apiClient = apiClient;
+        this.classroomCode = classroomCode;
+        this.testname = testname;
+        this.onStatus = onStatus;
+
+        AppConfig config = AppConfig.getInstance();
+        this.pushEnabled = config.getBoolean("test.status.push", true);
+        this.basePollMillis = config.getInt("test.status.poll.ms", 5000);
+        this.maxPollMillis = config.getInt("test.status.poll.max.ms", 60000);
+        this.pushRetryMillis = config.getInt("test.status.push.retry.ms", 30000);
+        this.pollDelayMillis = basePollMillis;
+
+        this.pollTimer = new Timer(basePollMillis, e -> poll());
+        this.pollTimer.setRepeats(false);
+        this.pushRetryTimer = new Timer(pushRetryMillis, e -> connectPush());
+        this.pushRetryTimer.setRepeats(false);
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        if (pushEnabled) {
+            connectPush();
+        } else {
+            schedulePoll();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        pollTimer.stop();
+        pushRetryTimer.stop();
+        if (pushSubscription != null) pushSubscription.cancel(true);
+        if (pollRequest != null) pollRequest.cancel(true);
+    }
+
+    private void connectPush() {
+        if (!running || pushUnsupported) return;
+        pollTimer.stop();
+
+        pushSubscription = apiClient.subscribeTestStatus(classroomCode, testname,
+                status -> SwingUtilities.invokeLater(() -> deliver(status)));
+        schedulePoll();
+
+        EdtFutures.onEdt(pushSubscription, ignored -> {
+            // The server closed the stream cleanly; check once and reconnect
+            if (!running) return;
+            poll();
+            pushRetryTimer.setInitialDelay(1000);
+            pushRetryTimer.restart();
+        }, error -> {
+            if (!running) return;
+            if (error instanceof ApiException apiError) {
+                int status = apiError.getStatusCode();
+                pushUnsupported = status == 404 || status == 405 || status == 406 || status == 501;
+            }
+            System.err.println("Status stream " + (pushUnsupported ? "not supported" : "failed")
+                    + ", falling back to polling: " + error.getMessage());
+            poll();
+            if (!pushUnsupported) {
+                pushRetryTimer.setInitialDelay(pushRetryMillis);
+                pushRetryTimer.restart();
+            }
+        });
+    }
+
+    private void poll() {
+        if (!running || (pollRequest != null && !pollRequest.isDone())) return;
+        pollRequest = apiClient.getTestAsync(classroomCode, testname);
+        EdtFutures.onEdt(pollRequest, test -> {
+            pollDelayMillis = basePollMillis;
+            deliver(test.status());
+            schedulePoll();
+        }, error -> {
+            System.err.println("Polling error: " + error.getMessage());
+            pollDelayMillis = Math.min(pollDelayMillis * 2, maxPollMillis);
+            schedulePoll();
+        });
+    }
+
+    private void schedulePoll() {
+        if (!running) return;
+        // While the push stream is open, polls only guard against a silently dropped connection
+        boolean pushConnected = pushSubscription != null && !pushSubscription.isDone();
+        int delay = pushConnected ? maxPollMillis : pollDelayMillis;
+        long jitter = (long) (delay * 0.2 * Math.random());
+        pollTimer.setInitialDelay((int) (delay + jitter));
+        pollTimer.restart();
+    }
+
+    private void deliver(String status) {
+        if (running && status != null) {
+            onStatus.accept(status);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mcq.client.lib;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP transport settings for {@link ApiClient}, read from application.properties.
+ *
+ * api.http.version          HTTP_2 (default; falls back to HTTP/1.1 when the server does not upgrade) or HTTP_1_1
+ * api.http.executor         virtual (default), fixed, or default for the HttpClient's own pool
+ * api.http.executor.threads thread count when the executor is fixed
+ * api.connect.timeout.ms    TCP/TLS connection setup
+ * api.request.timeout.ms    per-request timeout for JSON calls
+ * api.download.timeout.ms   per-request timeout for PDF downloads
+ * api.prewarm               open a connection to api.base.url while the login screen is showing
+ */
+public record TransportConfig(
+        HttpClient.Version version,
+        String executorMode,
+        int executorThreads,
+        Duration connectTimeout,
+        Duration requestTimeout,
+        Duration downloadTimeout,
+        boolean prewarm
+) {
+
+    public static TransportConfig from(AppConfig config) {
+        HttpClient.Version version;
+        try {
+            version = HttpClient.Version.valueOf(config.get("api.http.version", "HTTP_2").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("WARNING: Invalid value for api.http.version. Defaulting to HTTP_2");
+            version = HttpClient.Version.HTTP_2;
+        }
+        return new TransportConfig(
+                version,
+                config.get("api.http.executor", "virtual").toLowerCase(),
+                Math.max(1, config.getInt("api.http.executor.threads", 8)),
+                Duration.ofMillis(config.getLong("api.connect.timeout.ms", 10000)),
+                Duration.ofMillis(config.getLong("api.request.timeout.ms", 30000)),
+                Duration.ofMillis(config.getLong("api.download.timeout.ms", 120000)),
+                config.getBoolean("api.prewarm", true));
+    }
+
+    // Virtual-thread mode shares the caller's executor so HTTP callbacks and response decoding run on the same pool
+    public HttpClient.Builder newClientBuilder(ExecutorService sharedVirtualExecutor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout);
+
+        switch (executorMode) {
+            case "virtual" -> builder.executor(sharedVirtualExecutor);
+            case "fixed" -> {
+                AtomicInteger count = new AtomicInteger();
+                builder.executor(Executors.newFixedThreadPool(executorThreads, r -> {
+                    Thread t = new Thread(r, "http-client-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }));
+            }
+            default -> {
+                // Leave the HttpClient's internal cached pool in place
+            }
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,148 @@
+package com.mcq.client.lib;
+
+import com.mcq.client.lib.Models.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects username lookups made within a short window and resolves them with
+ * one bulk request. Names the bulk response does not cover, or every name once
+ * the server turns out to have no bulk endpoint, are fetched one by one with a
+ * bounded number of requests in flight.
+ */
+class UserBatchLoader {
+
+    private final Function<List<String>, CompletableFuture<List<User>>> bulkFetch;
+    private final Function<String, CompletableFuture<User>> singleFetch;
+    private final Executor executor;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Semaphore singlePermits;
+
+    private final Map<String, CompletableFuture<User>> loading = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<User>> queued = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+    private volatile boolean bulkSupported = true;
+
+    UserBatchLoader(Function<List<String>, CompletableFuture<List<User>>> bulkFetch,
+                    Function<String, CompletableFuture<User>> singleFetch,
+                    Executor executor, long windowMillis, int maxBatchSize, int maxParallelSingles) {
+        this.bulkFetch = bulkFetch;
+        this.singleFetch = singleFetch;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.singlePermits = new Semaphore(Math.max(1, maxParallelSingles));
+    }
+
+    CompletableFuture<User> load(String username) {
+        CompletableFuture<User> created = new CompletableFuture<>();
+        CompletableFuture<User> existing = loading.putIfAbsent(username, created);
+        if (existing != null) {
+            return existing.copy();
+        }
+        created.whenComplete((user, error) -> loading.remove(username, created));
+
+        boolean flushNow;
+        synchronized (this) {
+            queued.put(username, created);
+            flushNow = queued.size() >= maxBatchSize;
+            if (!flushNow && !flushScheduled) {
+                flushScheduled = true;
+                CompletableFuture.runAsync(this::flush, CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS, executor));
+            }
+        }
+        if (flushNow) {
+            executor.execute(this::flush);
+        }
+        return created.copy();
+    }
+
+    private void flush() {
+        List<Map<String, CompletableFuture<User>>> batches = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            Map<String, CompletableFuture<User>> batch = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<User>> entry : queued.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == maxBatchSize) {
+                    batches.add(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) batches.add(batch);
+            queued.clear();
+        }
+        batches.forEach(this::dispatch);
+    }
+
+    private void dispatch(Map<String, CompletableFuture<User>> batch) {
+        if (!bulkSupported || batch.size() == 1) {
+            batch.forEach(this::fetchSingle);
+            return;
+        }
+
+        bulkFetch.apply(new ArrayList<>(batch.keySet())).whenComplete((users, error) -> {
+            if (error != null) {
+                if (!isUnsupported(EdtFutures.unwrap(error))) {
+                    batch.values().forEach(future -> future.completeExceptionally(EdtFutures.unwrap(error)));
+                    return;
+                }
+                bulkSupported = false;
+                batch.forEach(this::fetchSingle);
+                return;
+            }
+
+            Map<String, User> byUsername = new HashMap<>();
+            if (users != null) {
+                for (User user : users) {
+                    if (user != null && user.username() != null) byUsername.put(user.username(), user);
+                }
+            }
+            batch.forEach((username, future) -> {
+                User user = byUsername.get(username);
+                if (user != null) {
+                    future.complete(user);
+                } else {
+                    fetchSingle(username, future);
+                }
+            });
+        });
+    }
+
+    private void fetchSingle(String username, CompletableFuture<User> future) {
+        executor.execute(() -> {
+            try {
+                singlePermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+            singleFetch.apply(username).whenComplete((user, error) -> {
+                singlePermits.release();
+                if (error != null) {
+                    future.completeExceptionally(EdtFutures.unwrap(error));
+                } else {
+                    future.complete(user);
+                }
+            });
+        });
+    }
+
+    private static boolean isUnsupported(Throwable error) {
+        if (!(error instanceof ApiException apiError)) return false;
+        int status = apiError.getStatusCode();
+        return status == 400 || status == 404 || status == 405 || status == 501;
+    }
+}
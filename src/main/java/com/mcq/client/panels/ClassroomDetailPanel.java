@@ -3,6 +3,7 @@ package com.mcq.client.panels;
 import com.mcq.client.Main;
 import com.mcq.client.lib.ApiClient;
 import com.mcq.client.lib.AuthService;
+import com.mcq.client.lib.EdtFutures;
 import com.mcq.client.lib.Models;
 
 import javax.swing.*;
@@ -13,7 +14,10 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import java.awt.Rectangle;
 
@@ -30,7 +34,11 @@ public class ClassroomDetailPanel extends JPanel {
     private JList<String> studentList;
     private DefaultListModel<String> studentListModel;
     private JScrollPane testsScrollPane;
-    private JLabel loadingLabel;
+    private JPanel studentPanel;
+    private final Map<String, Models.User> studentProfiles = new HashMap<>();
+    private CompletableFuture<Models.ClassroomDTO> classroomFuture;
+    private CompletableFuture<List<Models.Test>> testsFuture;
+    private boolean disposed = false;
 
     public ClassroomDetailPanel(Main mainFrame, String classroomCode) {
         this.mainFrame = mainFrame;
@@ -58,65 +66,94 @@ public class ClassroomDetailPanel extends JPanel {
         topBar.add(backButton, BorderLayout.WEST);
         mainContent.add(topBar, BorderLayout.NORTH);
 
-        loadingLabel = new JLabel("Loading classroom details...");
-        loadingLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        mainContent.add(loadingLabel, BorderLayout.CENTER);
-
         add(mainContent, BorderLayout.CENTER);
 
+        buildUI();
         fetchData();
     }
 
+    // The classroom and its tests are independent requests; each section fills in as soon as its own data lands
     private void fetchData() {
-        new SwingWorker<Void, Void>() {
-            Models.ClassroomDTO classroomData;
-            List<Models.Test> testsData;
+        cancelLoading();
 
-            @Override
-            protected Void doInBackground() throws Exception {
-                classroomData = apiClient.getClassroom(classroomCode);
-                testsData = apiClient.getTests(classroomCode);
-                return null;
-            }
+        classroomFuture = apiClient.getClassroomAsync(classroomCode);
+        testsFuture = apiClient.getTestsAsync(classroomCode);
 
-            @Override
-            protected void done() {
-                loadingLabel.setVisible(false);
-                try {
-                    get();
-                    buildUI(classroomData, testsData);
-                } catch (Exception e) {
-                    loadingLabel.setText("Error: " + e.getMessage());
-                    loadingLabel.setForeground(Color.RED);
-                    loadingLabel.setVisible(true);
-                }
-            }
-        }.execute();
+        EdtFutures.onEdt(classroomFuture, classroom -> {
+            if (!disposed) showClassroom(classroom);
+        }, error -> {
+            if (disposed) return;
+            classroomNameLabel.setText("Error: " + error.getMessage());
+            classroomNameLabel.setForeground(Color.RED);
+        });
+
+        EdtFutures.onEdt(testsFuture, tests -> {
+            if (!disposed) showTests(tests);
+        }, error -> {
+            if (disposed) return;
+            testsPanel.removeAll();
+            JLabel errorLabel = new JLabel("Error: " + error.getMessage());
+            errorLabel.setForeground(Color.RED);
+            testsPanel.add(errorLabel);
+            testsPanel.revalidate();
+            testsPanel.repaint();
+        });
     }
 
-    private void buildUI(Models.ClassroomDTO classroom, List<Models.Test> tests) {
-        JPanel mainContent = (JPanel) getComponent(1);
-        mainContent.remove(loadingLabel);
+    private void cancelLoading() {
+        if (classroomFuture != null) classroomFuture.cancel(true);
+        if (testsFuture != null) testsFuture.cancel(true);
+    }
+
+    public void dispose() {
+        disposed = true;
+        cancelLoading();
+    }
 
-        BorderLayout layout = (BorderLayout) mainContent.getLayout();
-        Component centerComponent = layout.getLayoutComponent(BorderLayout.CENTER);
-        if (centerComponent != null) {
-            mainContent.remove(centerComponent);
+    private void showClassroom(Models.ClassroomDTO classroom) {
+        classroomNameLabel.setText(classroom.classroomname());
+        classroomNameLabel.setForeground(UIManager.getColor("Label.foreground"));
+        classroomCodeLabel.setText("Code: " + classroom.code());
+
+        studentListModel.clear();
+        studentListModel.addAll(classroom.classroomstudents());
+        ((TitledBorder) studentPanel.getBorder()).setTitle("Students (" + classroom.classroomstudents().size() + ")");
+        studentPanel.repaint();
+
+        loadStudentProfiles(classroom.classroomstudents());
+    }
+
+    private void loadStudentProfiles(List<String> usernames) {
+        for (String username : usernames) {
+            if (studentProfiles.containsKey(username)) continue;
+            // Failures just leave the bare username in the list
+            EdtFutures.onEdt(apiClient.loadUserAsync(username), user -> {
+                if (disposed || user == null) return;
+                studentProfiles.put(username, user);
+                studentList.repaint();
+            }, error -> {});
         }
+    }
+
+    private void showTests(List<Models.Test> tests) {
+        populateTests(tests);
+        ((TitledBorder) testsScrollPane.getBorder()).setTitle("Tests (" + tests.size() + ")");
+        testsScrollPane.repaint();
+    }
+
+    private void buildUI() {
+        JPanel mainContent = (JPanel) getComponent(1);
 
         JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT);
         splitPane.setResizeWeight(0.25);
         splitPane.setOpaque(false);
         splitPane.setBorder(BorderFactory.createEmptyBorder());
 
-        JPanel studentPanel = new JPanel(new BorderLayout(10, 10));
+        studentPanel = new JPanel(new BorderLayout(10, 10));
         studentPanel.setOpaque(false);
-        studentPanel.setBorder(new TitledBorder("Students (" + classroom.classroomstudents().size() + ")"));
+        studentPanel.setBorder(new TitledBorder("Students"));
 
         studentListModel = new DefaultListModel<>();
-        for (String student : classroom.classroomstudents()) {
-            studentListModel.addElement(student);
-        }
         studentList = new JList<>(studentListModel);
 
         studentList.setCellRenderer(new StudentCellRenderer(authService.isTeacher()));
@@ -165,13 +202,13 @@ public class ClassroomDetailPanel extends JPanel {
         infoTextPanel.setLayout(new BoxLayout(infoTextPanel, BoxLayout.Y_AXIS));
         infoTextPanel.setOpaque(false);
 
-        classroomNameLabel = new JLabel(classroom.classroomname());
+        classroomNameLabel = new JLabel("Loading classroom details...");
         classroomNameLabel.setFont(new Font("SansSerif", Font.BOLD, 24));
         infoTextPanel.add(classroomNameLabel);
 
         infoTextPanel.add(Box.createRigidArea(new Dimension(0, 5)));
 
-        classroomCodeLabel = new JLabel("Code: " + classroom.code());
+        classroomCodeLabel = new JLabel("Code: " + classroomCode);
         classroomCodeLabel.setFont(new Font("Monospaced", Font.BOLD, 18));
         classroomCodeLabel.setForeground(Color.BLACK);
         classroomCodeLabel.setBackground(new Color(243, 244, 246));
@@ -196,10 +233,10 @@ public class ClassroomDetailPanel extends JPanel {
         testsPanel.setLayout(new BoxLayout(testsPanel, BoxLayout.Y_AXIS));
         testsPanel.setOpaque(false);
 
-        populateTests(tests);
+        testsPanel.add(new JLabel("Loading tests..."));
 
         testsScrollPane = new JScrollPane(testsPanel);
-        testsScrollPane.setBorder(new TitledBorder("Tests (" + tests.size() + ")"));
+        testsScrollPane.setBorder(new TitledBorder("Tests"));
         testsScrollPane.getViewport().setBackground(new Color(248, 250, 252));
         rightPanel.add(testsScrollPane, BorderLayout.CENTER);
 
@@ -319,39 +356,36 @@ public class ClassroomDetailPanel extends JPanel {
 
 
     private void handleShowStudentInfo(String studentUsername) {
-        new SwingWorker<Models.User, Void>() {
-            @Override
-            protected Models.User doInBackground() throws Exception {
-                return apiClient.getUserByUsername(studentUsername);
-            }
+        Models.User profile = studentProfiles.get(studentUsername);
+        if (profile != null) {
+            showStudentInfo(profile);
+            return;
+        }
+        EdtFutures.onEdt(apiClient.loadUserAsync(studentUsername), student -> {
+            studentProfiles.put(studentUsername, student);
+            showStudentInfo(student);
+        }, error -> JOptionPane.showMessageDialog(
+                ClassroomDetailPanel.this,
+                "Failed to load student info: " + error.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+        ));
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    Models.User student = get();
-                    String infoMessage = String.format(
-                            "Name: %s %s\nEmail: %s\nUsername: @%s",
-                            student.firstname(),
-                            student.lastname(),
-                            student.email(),
-                            student.username()
-                    );
-                    JOptionPane.showMessageDialog(
-                            ClassroomDetailPanel.this,
-                            infoMessage,
-                            "Student Information",
-                            JOptionPane.INFORMATION_MESSAGE
-                    );
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(
-                            ClassroomDetailPanel.this,
-                            "Failed to load student info: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                }
-            }
-        }.execute();
+    private void showStudentInfo(Models.User student) {
+        String infoMessage = String.format(
+                "Name: %s %s\nEmail: %s\nUsername: @%s",
+                student.firstname(),
+                student.lastname(),
+                student.email(),
+                student.username()
+        );
+        JOptionPane.showMessageDialog(
+                ClassroomDetailPanel.this,
+                infoMessage,
+                "Student Information",
+                JOptionPane.INFORMATION_MESSAGE
+        );
     }
 
 
@@ -377,7 +411,6 @@ public class ClassroomDetailPanel extends JPanel {
                         get();
                         studentListModel.removeElement(studentUsername);
 
-                        JPanel studentPanel = (JPanel) studentList.getParent().getParent().getParent();
                         ((TitledBorder) studentPanel.getBorder())
                                 .setTitle("Students (" + studentListModel.getSize() + ")");
                         studentPanel.repaint();
@@ -476,31 +509,70 @@ public class ClassroomDetailPanel extends JPanel {
                 return;
             }
 
-            new SwingWorker<Void, Void>() {
+            JProgressBar progressBar = new JProgressBar(0, 100);
+            progressBar.setStringPainted(true);
+            JLabel progressLabel = new JLabel("Preparing upload...");
+
+            JPanel progressPanel = new JPanel(new BorderLayout(10, 10));
+            progressPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+            progressPanel.add(progressLabel, BorderLayout.NORTH);
+            progressPanel.add(progressBar, BorderLayout.CENTER);
+
+            JDialog progressDialog = new JDialog(mainFrame, "Uploading Test", true);
+            progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+            progressDialog.setContentPane(progressPanel);
+            progressDialog.setSize(420, 140);
+            progressDialog.setLocationRelativeTo(this);
+
+            long fileSize = pdfFile[0].length();
+
+            SwingWorker<Void, Void> uploadWorker = new SwingWorker<>() {
                 @Override
                 protected Void doInBackground() throws Exception {
-                    apiClient.createTest(classroomCode, name, pdfFile[0], answerList);
+                    apiClient.createTest(classroomCode, name, pdfFile[0], answerList, (sent, total) -> {
+                        if (total > 0) setProgress((int) Math.min(100, sent * 100 / total));
+                    });
                     return null;
                 }
                 @Override
                 protected void done() {
+                    progressDialog.dispose();
                     try { get(); fetchData(); }
                     catch (Exception e) { JOptionPane.showMessageDialog(ClassroomDetailPanel.this, "Failed to create test: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE); }
                 }
-            }.execute();
+            };
+            uploadWorker.addPropertyChangeListener(evt -> {
+                if ("progress".equals(evt.getPropertyName())) {
+                    int percent = (Integer) evt.getNewValue();
+                    progressBar.setValue(percent);
+                    progressLabel.setText(percent < 100
+                            ? String.format("Uploading %s (%.1f of %.1f MB)", pdfFile[0].getName(),
+                                fileSize * percent / 100 / 1048576.0, fileSize / 1048576.0)
+                            : "Processing on server...");
+                }
+            });
+            uploadWorker.execute();
+            progressDialog.setVisible(true);
         }
     }
 
 
     class StudentCellRenderer extends JPanel implements ListCellRenderer<String> {
         private final JLabel nameLabel = new JLabel();
+        private final JLabel detailLabel = new JLabel();
         final JButton deleteButton = new JButton("X");
         private final boolean isTeacher;
 
         public StudentCellRenderer(boolean isTeacher) {
             this.isTeacher = isTeacher;
             setLayout(new BorderLayout(5, 5));
-            add(nameLabel, BorderLayout.CENTER);
+
+            JPanel text = new JPanel(new GridLayout(2, 1));
+            text.setOpaque(false);
+            detailLabel.setFont(detailLabel.getFont().deriveFont(11f));
+            text.add(nameLabel);
+            text.add(detailLabel);
+            add(text, BorderLayout.CENTER);
 
             if (isTeacher) {
                 deleteButton.setForeground(Color.RED);
@@ -517,15 +589,24 @@ public class ClassroomDetailPanel extends JPanel {
                                                       int index,
                                                       boolean isSelected,
                                                       boolean cellHasFocus) {
-            nameLabel.setText(value);
+            Models.User profile = studentProfiles.get(value);
+            if (profile != null) {
+                nameLabel.setText(profile.firstname() + " " + profile.lastname());
+                detailLabel.setText("@" + value + "  " + profile.email());
+            } else {
+                nameLabel.setText(value);
+                detailLabel.setText("@" + value);
+            }
             deleteButton.setVisible(isTeacher);
 
             if (isSelected) {
                 setBackground(list.getSelectionBackground());
                 nameLabel.setForeground(list.getSelectionForeground());
+                detailLabel.setForeground(list.getSelectionForeground());
             } else {
                 setBackground(list.getBackground());
                 nameLabel.setForeground(list.getForeground());
+                detailLabel.setForeground(Color.GRAY);
             }
 
             setEnabled(list.isEnabled());
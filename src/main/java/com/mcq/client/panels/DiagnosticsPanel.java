@@ -0,0 +1,173 @@
+package com.mcq.client.panels;
+
+import com.mcq.client.lib.AppDirectories;
+import com.mcq.client.lib.LatencyHistogram;
+import com.mcq.client.lib.Metrics;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live view of {@link Metrics}, opened with Ctrl+Alt+Shift+D. Meant for
+ * support: the JSON buttons produce the same data for attaching to a ticket.
+ */
+public class DiagnosticsPanel extends JPanel {
+
+    private static JDialog openDialog;
+
+    private final Metrics metrics = Metrics.getInstance();
+    private final EndpointTableModel endpointModel = new EndpointTableModel();
+    private final JTextArea summaryArea = new JTextArea();
+    private final Timer refreshTimer = new Timer(1000, e -> refresh());
+
+    public DiagnosticsPanel() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(12, 12, 12, 12));
+
+        JTable table = new JTable(endpointModel);
+        table.setAutoCreateRowSorter(true);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(320);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        summaryArea.setEditable(false);
+        summaryArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        summaryArea.setRows(9);
+        add(new JScrollPane(summaryArea), BorderLayout.SOUTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        JButton copyButton = new JButton("Copy JSON");
+        copyButton.addActionListener(e -> Toolkit.getDefaultToolkit().getSystemClipboard()
+                .setContents(new StringSelection(metrics.toJson()), null));
+        JButton saveButton = new JButton("Save JSON");
+        saveButton.addActionListener(e -> saveJson());
+        buttons.add(copyButton);
+        buttons.add(saveButton);
+        add(buttons, BorderLayout.NORTH);
+
+        refresh();
+    }
+
+    public static void showDialog(Window owner) {
+        if (openDialog != null && openDialog.isDisplayable()) {
+            openDialog.toFront();
+            return;
+        }
+        JDialog dialog = new JDialog(owner, "Diagnostics", Dialog.ModalityType.MODELESS);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        dialog.setAlwaysOnTop(true);
+        dialog.setContentPane(new DiagnosticsPanel());
+        dialog.setSize(980, 620);
+        dialog.setLocationRelativeTo(owner);
+        dialog.setVisible(true);
+        openDialog = dialog;
+    }
+
+    public static void closeDialog() {
+        if (openDialog != null) {
+            openDialog.dispose();
+            openDialog = null;
+        }
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        Metrics.Snapshot snapshot = metrics.snapshot();
+        endpointModel.setRows(snapshot.endpoints());
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Uptime %ds%n", snapshot.uptimeMillis() / 1000));
+        text.append(describe("EDT lag     ", snapshot.edtLag()));
+        text.append(describe("PDF render  ", snapshot.pdfRender()));
+        snapshot.caches().forEach((name, cache) -> text.append(String.format("Cache %-14s %5.1f%% hits (%d / %d)%n",
+                name, cache.hitRate() * 100, cache.hits(), cache.hits() + cache.misses())));
+        for (Map.Entry<String, Object> gauge : snapshot.gauges().entrySet()) {
+            text.append(gauge.getKey()).append(": ").append(gauge.getValue()).append(System.lineSeparator());
+        }
+        summaryArea.setText(text.toString());
+        summaryArea.setCaretPosition(0);
+    }
+
+    private static String describe(String label, LatencyHistogram.Summary summary) {
+        return String.format("%s n=%-7d p50 %8.1f ms   p90 %8.1f ms   p99 %8.1f ms   max %8.1f ms%n", label,
+                summary.count(), summary.p50Millis(), summary.p90Millis(), summary.p99Millis(), summary.maxMillis());
+    }
+
+    private void saveJson() {
+        try {
+            Path file = metrics.dumpJson(AppDirectories.dataDir().resolve("diagnostics"));
+            JOptionPane.showMessageDialog(this, "Saved to " + file, "Diagnostics", JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Could not save diagnostics: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static class EndpointTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Endpoint", "Calls", "Errors", "p50 ms", "p90 ms", "p99 ms", "Max ms", "KB out", "KB in"};
+
+        private List<Metrics.EndpointSummary> rows = List.of();
+
+        void setRows(List<Metrics.EndpointSummary> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return switch (column) {
+                case 0 -> String.class;
+                case 1, 2 -> Long.class;
+                default -> Double.class;
+            };
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Metrics.EndpointSummary endpoint = rows.get(row);
+            LatencyHistogram.Summary latency = endpoint.latency();
+            return switch (column) {
+                case 0 -> endpoint.endpoint();
+                case 1 -> latency.count();
+                case 2 -> endpoint.errors();
+                case 3 -> latency.p50Millis();
+                case 4 -> latency.p90Millis();
+                case 5 -> latency.p99Millis();
+                case 6 -> latency.maxMillis();
+                case 7 -> Math.round(endpoint.bytesOut() / 102.4) / 10.0;
+                default -> Math.round(endpoint.bytesIn() / 102.4) / 10.0;
+            };
+        }
+    }
+}
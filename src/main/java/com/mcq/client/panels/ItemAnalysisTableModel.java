@@ -0,0 +1,74 @@
+package com.mcq.client.panels;
+
+import com.mcq.client.analytics.ItemAnalysisReport;
+import com.mcq.client.lib.AnswerMatrix;
+
+import javax.swing.table.AbstractTableModel;
+
+public class ItemAnalysisTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Question", "Key", "Difficulty (p)", "Discrimination (r)", "A", "B", "C", "D", "Blank"};
+    private static final String[] OPTION_LABELS = {"-", "A", "B", "C", "D"};
+
+    private final ItemAnalysisReport report;
+    private final String[] questionLabels;
+    private final String[] difficultyLabels;
+    private final String[] discriminationLabels;
+
+    public ItemAnalysisTableModel(ItemAnalysisReport report) {
+        this.report = report;
+
+        int questions = report.getQuestionCount();
+        this.questionLabels = new String[questions];
+        this.difficultyLabels = new String[questions];
+        this.discriminationLabels = new String[questions];
+        for (int q = 0; q < questions; q++) {
+            questionLabels[q] = "Q" + (q + 1);
+            difficultyLabels[q] = format(report.getDifficulty(q));
+            discriminationLabels[q] = format(report.getDiscrimination(q));
+        }
+    }
+
+    public ItemAnalysisReport getReport() {
+        return report;
+    }
+
+    @Override
+    public int getRowCount() {
+        return report.getQuestionCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column >= 4 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return switch (column) {
+            case 0 -> questionLabels[row];
+            case 1 -> {
+                byte key = report.getCorrectOption(row);
+                yield key <= AnswerMatrix.OPTION_COUNT ? OPTION_LABELS[key] : "?";
+            }
+            case 2 -> difficultyLabels[row];
+            case 3 -> discriminationLabels[row];
+            case 8 -> report.getOptionCount(row, AnswerMatrix.NO_ANSWER);
+            default -> report.getOptionCount(row, column - 3);
+        };
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format("%.2f", value);
+    }
+}
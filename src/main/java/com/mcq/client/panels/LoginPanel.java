@@ -9,7 +9,6 @@ import java.awt.*;
 public class LoginPanel extends JPanel {
 
     private final Main mainFrame;
-    private final AuthService authService;
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JButton loginButton;
@@ -18,7 +17,6 @@ public class LoginPanel extends JPanel {
 
     public LoginPanel(Main mainFrame) {
         this.mainFrame = mainFrame;
-        this.authService = AuthService.getInstance();
 
         setLayout(new GridBagLayout());
         setBackground(new Color(240, 245, 255));
@@ -125,7 +123,7 @@ public class LoginPanel extends JPanel {
         new SwingWorker<Void, Void>() {
             @Override
             protected Void doInBackground() throws Exception {
-                authService.login(username, password);
+                AuthService.getInstance().login(username, password);
                 return null;
             }
 
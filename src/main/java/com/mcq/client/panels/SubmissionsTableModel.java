@@ -0,0 +1,61 @@
+package com.mcq.client.panels;
+
+import com.mcq.client.lib.AnswerMatrix;
+
+import javax.swing.table.AbstractTableModel;
+
+public class SubmissionsTableModel extends AbstractTableModel {
+
+    static final int FIXED_COLUMNS = 2;
+
+    private final AnswerMatrix matrix;
+    private final String[] columnNames;
+    private final String[] scoreLabels;
+
+    public SubmissionsTableModel(AnswerMatrix matrix) {
+        this.matrix = matrix;
+
+        this.columnNames = new String[matrix.getQuestionCount() + FIXED_COLUMNS];
+        columnNames[0] = "Student";
+        columnNames[1] = "Score";
+        for (int q = 0; q < matrix.getQuestionCount(); q++) {
+            columnNames[q + FIXED_COLUMNS] = "Q" + (q + 1) + " (" + matrix.getCorrectAnswerLabel(q) + ")";
+        }
+
+        this.scoreLabels = new String[matrix.getStudentCount()];
+        for (int s = 0; s < scoreLabels.length; s++) {
+            scoreLabels[s] = matrix.getScore(s) + "/" + matrix.getTotalQuestions(s);
+        }
+    }
+
+    public AnswerMatrix getMatrix() {
+        return matrix;
+    }
+
+    @Override
+    public int getRowCount() {
+        return matrix.getStudentCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) return matrix.getStudentName(row);
+        if (column == 1) return scoreLabels[row];
+        return matrix.getAnswerLabel(row, column - FIXED_COLUMNS);
+    }
+}
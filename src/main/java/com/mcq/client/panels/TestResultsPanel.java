@@ -1,17 +1,27 @@
 package com.mcq.client.panels;
 
 import com.mcq.client.Main;
+import com.mcq.client.analytics.ItemAnalysis;
+import com.mcq.client.analytics.ItemAnalysisReport;
+import com.mcq.client.lib.AnswerMatrix;
 import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.AppConfig;
 import com.mcq.client.lib.AuthService;
+import com.mcq.client.lib.EdtFutures;
 import com.mcq.client.lib.Models;
+import com.mcq.client.lib.PdfDocumentSession;
+import com.mcq.client.lib.PdfPagePrefetcher;
 import com.mcq.client.lib.PdfUtil;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class TestResultsPanel extends JPanel {
 
@@ -22,6 +32,14 @@ public class TestResultsPanel extends JPanel {
     private final String testname;
 
     private JLabel loadingLabel;
+    private PdfDocumentSession pdfSession;
+    private PdfPagePrefetcher pagePrefetcher;
+    private boolean disposed = false;
+
+    private JTabbedPane pdfTabs;
+    private final List<JLabel> pdfPageLabels = new ArrayList<>();
+    private final Set<Integer> renderedTabs = new LinkedHashSet<>();
+    private final int maxRenderedTabs = Math.max(3, AppConfig.getInstance().getInt("pdf.results.max.rendered.tabs", 8));
 
     public TestResultsPanel(Main mainFrame, String classroomCode, String testname) {
         this.mainFrame = mainFrame;
@@ -122,43 +140,69 @@ public class TestResultsPanel extends JPanel {
 
         teacherPanel.add(headerPanel, BorderLayout.NORTH);
 
-        String[] columnNames = new String[results.totalQuestions() + 2];
-        columnNames[0] = "Student";
-        columnNames[1] = "Score";
-        for (int i = 0; i < results.totalQuestions(); i++) {
-            String correctAns = (results.correctAnswers() != null && i < results.correctAnswers().size()) ? results.correctAnswers().get(i) : "?";
-            columnNames[i+2] = "Q" + (i + 1) + " (" + correctAns + ")";
-        }
-
-        Object[][] data = new Object[results.submissions().size()][columnNames.length];
-        for(int i = 0; i < results.submissions().size(); i++) {
-            Models.StudentResultDTO sub = results.submissions().get(i);
-            data[i][0] = sub.user().firstname() + " " + sub.user().lastname();
-            data[i][1] = sub.score() + "/" + sub.totalQuestions();
-            for(int j = 0; j < results.totalQuestions(); j++) {
-                data[i][j+2] = (sub.userAnswers() != null && sub.userAnswers().size() > j) ? sub.userAnswers().get(j) : "-";
-            }
-        }
-
-        DefaultTableModel tableModel = new DefaultTableModel(data, columnNames) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        AnswerMatrix matrix = AnswerMatrix.from(results);
+        SubmissionsTableModel tableModel = new SubmissionsTableModel(matrix);
 
         JTable table = new JTable(tableModel);
         table.setRowHeight(30);
         table.getTableHeader().setReorderingAllowed(false);
-        table.setDefaultRenderer(Object.class, new TeacherCellRenderer(results.correctAnswers()));
+        table.setDefaultRenderer(String.class, new TeacherCellRenderer());
+
+        JPanel analysisPanel = new JPanel(new BorderLayout(10, 10));
+        analysisPanel.setOpaque(false);
+        JLabel analysisLabel = new JLabel("Analyzing " + matrix.getQuestionCount() + " questions...", SwingConstants.CENTER);
+        analysisLabel.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        analysisPanel.add(analysisLabel, BorderLayout.CENTER);
+
+        JTabbedPane teacherTabs = new JTabbedPane();
+        teacherTabs.addTab("Submissions", new JScrollPane(table));
+        teacherTabs.addTab("Item Analysis", analysisPanel);
+        teacherPanel.add(teacherTabs, BorderLayout.CENTER);
 
-        teacherPanel.add(new JScrollPane(table), BorderLayout.CENTER);
+        loadItemAnalysis(matrix, analysisPanel, analysisLabel);
 
         mainContent.add(teacherPanel, BorderLayout.CENTER);
         revalidate();
         repaint();
     }
 
+    private void loadItemAnalysis(AnswerMatrix matrix, JPanel analysisPanel, JLabel analysisLabel) {
+        new SwingWorker<ItemAnalysisReport, Void>() {
+            @Override
+            protected ItemAnalysisReport doInBackground() {
+                return ItemAnalysis.analyze(matrix);
+            }
+
+            @Override
+            protected void done() {
+                if (disposed) return;
+                try {
+                    ItemAnalysisReport report = get();
+
+                    JLabel summary = new JLabel(String.format("KR-20 Reliability: %s | Mean: %.1f | Std. Dev.: %.2f",
+                            Double.isNaN(report.getKr20()) ? "n/a" : String.format("%.2f", report.getKr20()),
+                            report.getMeanScore(), report.getScoreStdDev()));
+                    summary.setFont(new Font("SansSerif", Font.BOLD, 14));
+                    summary.setBorder(new EmptyBorder(5, 5, 0, 5));
+
+                    JTable analysisTable = new JTable(new ItemAnalysisTableModel(report));
+                    analysisTable.setRowHeight(26);
+                    analysisTable.getTableHeader().setReorderingAllowed(false);
+                    analysisTable.setDefaultRenderer(String.class, new ItemAnalysisCellRenderer());
+
+                    analysisPanel.remove(analysisLabel);
+                    analysisPanel.add(summary, BorderLayout.NORTH);
+                    analysisPanel.add(new JScrollPane(analysisTable), BorderLayout.CENTER);
+                } catch (Exception e) {
+                    analysisLabel.setText("Error analyzing results: " + e.getMessage());
+                    analysisLabel.setForeground(Color.RED);
+                }
+                analysisPanel.revalidate();
+                analysisPanel.repaint();
+            }
+        }.execute();
+    }
+
     private void buildStudentUI(Models.StudentResultDTO result) {
         JPanel mainContent = (JPanel) getComponent(1);
         mainContent.remove(loadingLabel);
@@ -197,28 +241,33 @@ public class TestResultsPanel extends JPanel {
         pdfLabel.setHorizontalAlignment(SwingConstants.CENTER);
         pdfPanel.add(pdfLabel, BorderLayout.CENTER);
 
-        new SwingWorker<byte[], Void>() {
+        new SwingWorker<PdfDocumentSession, Void>() {
             @Override
-            protected byte[] doInBackground() throws Exception {
-                return apiClient.getTestPDF(classroomCode, testname);
+            protected PdfDocumentSession doInBackground() throws Exception {
+                return new PdfDocumentSession(apiClient.getTestPDF(classroomCode, testname));
             }
             @Override
             protected void done() {
                 try {
-                    byte[] pdfData = get();
-                    JTabbedPane pdfTabs = new JTabbedPane();
+                    pdfSession = get();
+                    if (disposed) {
+                        pdfSession.close();
+                        return;
+                    }
+                    pagePrefetcher = new PdfPagePrefetcher(pdfSession, 4);
+                    pdfTabs = new JTabbedPane();
                     for(int i = 0; i < result.totalQuestions(); i++) {
-                        JLabel pageLabel = new JLabel();
+                        JLabel pageLabel = new JLabel("Loading question...");
                         pageLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                        int parentWidth = Math.max(splitPane.getLeftComponent().getWidth() - 40, 400);
-                        ImageIcon icon = PdfUtil.getScaledPdfPage(pdfData, i, parentWidth);
-                        pageLabel.setIcon(icon);
+                        pdfPageLabels.add(pageLabel);
                         pdfTabs.addTab("Q " + (i+1), new JScrollPane(pageLabel));
                     }
+                    pdfTabs.addChangeListener(e -> showResultTab(pdfTabs.getSelectedIndex()));
                     pdfPanel.removeAll();
                     pdfPanel.add(pdfTabs, BorderLayout.CENTER);
                     pdfPanel.revalidate();
                     pdfPanel.repaint();
+                    SwingUtilities.invokeLater(() -> showResultTab(pdfTabs.getSelectedIndex()));
                 } catch (Exception e) {
                     pdfLabel.setText("Failed to load PDF: " + e.getMessage());
                 }
@@ -274,11 +323,64 @@ public class TestResultsPanel extends JPanel {
         repaint();
     }
 
-    class TeacherCellRenderer extends DefaultTableCellRenderer {
-        private final java.util.List<String> correctAnswers;
+    private void showResultTab(int index) {
+        if (index < 0 || disposed) return;
+        int width = Math.max(pdfTabs.getWidth() - 40, 400);
+        double deviceScale = PdfUtil.getDeviceScale(pdfTabs);
+
+        if (!renderedTabs.contains(index)) {
+            JLabel pageLabel = pdfPageLabels.get(index);
+            EdtFutures.onEdt(pagePrefetcher.request(index, width, deviceScale), icon -> {
+                if (disposed) return;
+                if (icon == null) {
+                    pageLabel.setText("Failed to render question " + (index + 1));
+                    return;
+                }
+                pageLabel.setText(null);
+                pageLabel.setIcon(icon);
+                renderedTabs.add(index);
+                evictOffscreenTabs(pdfTabs.getSelectedIndex());
+            }, error -> pageLabel.setText("Failed to render question " + (index + 1)));
+        }
+
+        List<Integer> adjacent = new ArrayList<>();
+        if (index + 1 < pdfPageLabels.size()) adjacent.add(index + 1);
+        if (index > 0) adjacent.add(index - 1);
+        pagePrefetcher.prefetch(adjacent, width, deviceScale);
+    }
+
+    private void evictOffscreenTabs(int selectedIndex) {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        boolean memoryPressure = used > runtime.maxMemory() * 0.75;
+
+        Iterator<Integer> it = renderedTabs.iterator();
+        while (it.hasNext() && (memoryPressure || renderedTabs.size() > maxRenderedTabs)) {
+            int tab = it.next();
+            if (Math.abs(tab - selectedIndex) <= 1) continue;
+            JLabel pageLabel = pdfPageLabels.get(tab);
+            pageLabel.setIcon(null);
+            pageLabel.setText("Loading question...");
+            it.remove();
+        }
+    }
 
-        public TeacherCellRenderer(java.util.List<String> correctAnswers) {
-            this.correctAnswers = correctAnswers;
+    public void dispose() {
+        disposed = true;
+        if (pagePrefetcher != null) {
+            pagePrefetcher.close();
+        }
+        if (pdfSession != null) {
+            pdfSession.close();
+        }
+    }
+
+    static class TeacherCellRenderer extends DefaultTableCellRenderer {
+        private static final Color CORRECT_COLOR = new Color(22, 163, 74);
+        private static final Color WRONG_COLOR = new Color(220, 38, 38);
+        private static final Font BOLD_FONT = new Font("SansSerif", Font.BOLD, 14);
+
+        public TeacherCellRenderer() {
             setHorizontalAlignment(SwingConstants.CENTER);
         }
 
@@ -288,24 +390,54 @@ public class TestResultsPanel extends JPanel {
             c.setBackground(Color.WHITE);
             c.setForeground(Color.BLACK);
 
-            if (col > 1) {
-                String userAnswer = (String) value;
-                if (correctAnswers != null && col - 2 < correctAnswers.size()) {
-                    String correctAnswer = correctAnswers.get(col - 2);
-                    if (userAnswer.equals(correctAnswer)) {
-                        c.setForeground(new Color(22, 163, 74));
-                        c.setFont(new Font("SansSerif", Font.BOLD, 14));
-                    } else if (!userAnswer.equals("-")) {
-                        c.setForeground(new Color(220, 38, 38));
+            int modelCol = table.convertColumnIndexToModel(col);
+            if (modelCol >= SubmissionsTableModel.FIXED_COLUMNS) {
+                AnswerMatrix matrix = ((SubmissionsTableModel) table.getModel()).getMatrix();
+                int student = table.convertRowIndexToModel(row);
+                int question = modelCol - SubmissionsTableModel.FIXED_COLUMNS;
+                if (matrix.hasCorrectAnswer(question)) {
+                    if (matrix.isCorrect(student, question)) {
+                        c.setForeground(CORRECT_COLOR);
+                        c.setFont(BOLD_FONT);
+                    } else if (matrix.getAnswer(student, question) != AnswerMatrix.NO_ANSWER) {
+                        c.setForeground(WRONG_COLOR);
                     } else {
                         c.setForeground(Color.GRAY);
                     }
                 }
-            } else if (col == 1) {
-                c.setFont(new Font("SansSerif", Font.BOLD, 14));
+            } else if (modelCol == 1) {
+                c.setFont(BOLD_FONT);
             }
 
             return c;
         }
     }
+
+    static class ItemAnalysisCellRenderer extends DefaultTableCellRenderer {
+        private static final Color POOR_COLOR = new Color(220, 38, 38);
+        private static final double POOR_DISCRIMINATION = 0.2;
+
+        public ItemAnalysisCellRenderer() {
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int col) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, col);
+            if (!isSelected) {
+                c.setBackground(Color.WHITE);
+                c.setForeground(Color.BLACK);
+            }
+
+            // Items that barely separate strong and weak students are worth a second look
+            if (table.convertColumnIndexToModel(col) == 3) {
+                ItemAnalysisReport report = ((ItemAnalysisTableModel) table.getModel()).getReport();
+                double discrimination = report.getDiscrimination(table.convertRowIndexToModel(row));
+                if (discrimination < POOR_DISCRIMINATION) {
+                    c.setForeground(POOR_COLOR);
+                }
+            }
+            return c;
+        }
+    }
 }
\ No newline at end of file
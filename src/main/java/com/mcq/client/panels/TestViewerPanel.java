@@ -1,20 +1,32 @@
 package com.mcq.client.panels;
 
 import com.mcq.client.Main;
+import com.mcq.client.lib.AnswerAutosaver;
+import com.mcq.client.lib.AnswerJournal;
 import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.AppConfig;
 import com.mcq.client.lib.AuthService;
+import com.mcq.client.lib.EdtFutures;
 import com.mcq.client.lib.Models.Test;
 import com.mcq.client.lib.Models.User;
+import com.mcq.client.lib.PdfDocumentSession;
+import com.mcq.client.lib.PdfPagePrefetcher;
 import com.mcq.client.lib.PdfUtil;
+import com.mcq.client.lib.TestStatusWatcher;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -26,7 +38,9 @@ public class TestViewerPanel extends JPanel {
     private final String testname;
 
     private Test test;
-    private byte[] pdfData;
+    private PdfDocumentSession pdfSession;
+    private PdfPagePrefetcher pagePrefetcher;
+    private final int prefetchDepth;
     private int currentPage = 0;
     private Map<Integer, String> answers = new HashMap<>();
     private int totalQuestions = 0;
@@ -38,14 +52,22 @@ public class TestViewerPanel extends JPanel {
     private JButton prevButton, nextButton;
     private JPanel answerButtonPanel;
     private JPanel questionNavPanel;
-    private Timer pollingTimer;
+    private TestStatusWatcher statusWatcher;
+    private AnswerAutosaver autosaver;
+    private AnswerJournal journal;
+    private Timer resizeTimer;
+    private CompletableFuture<Test> testFuture;
+    private CompletableFuture<PdfDocumentSession> pdfFuture;
+    private int renderedWidth = -1;
     private boolean isSubmitting = false;
+    private boolean disposed = false;
 
     public TestViewerPanel(Main mainFrame, String classroomCode, String testname) {
         this.mainFrame = mainFrame;
         this.apiClient = ApiClient.getInstance();
         this.classroomCode = classroomCode;
         this.testname = testname;
+        this.prefetchDepth = Math.max(0, AppConfig.getInstance().getInt("pdf.prefetch.depth", 2));
 
         setLayout(new BorderLayout(10, 10));
         setBackground(new Color(248, 250, 252));
@@ -69,6 +91,15 @@ public class TestViewerPanel extends JPanel {
         pdfScrollPane = new JScrollPane(pdfLabel);
         pdfScrollPane.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
 
+        resizeTimer = new Timer(250, e -> refreshPageForViewport());
+        resizeTimer.setRepeats(false);
+        pdfScrollPane.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                resizeTimer.restart();
+            }
+        });
+
         JPanel pdfControls = new JPanel(new BorderLayout());
         pdfControls.setOpaque(false);
         pageLabel = new JLabel("Q: - / -", SwingConstants.CENTER);
@@ -90,6 +121,7 @@ public class TestViewerPanel extends JPanel {
             btn.setFont(new Font("SansSerif", Font.BOLD, 32));
             btn.setMargin(new Insets(15, 15, 15, 15));
             btn.addActionListener(e -> selectAnswer(option));
+            btn.setEnabled(false); // until the test has loaded
             answerButtonPanel.add(btn);
         }
         pdfViewerPanel.add(answerButtonPanel, BorderLayout.SOUTH);
@@ -163,38 +195,78 @@ public class TestViewerPanel extends JPanel {
         return navbar;
     }
 
+    // Test metadata and the PDF are fetched concurrently: the navigator and autosave come up as soon as
+    // the metadata lands, and the first question appears once the document has been parsed
     private void loadTest() {
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                test = apiClient.getTest(classroomCode, testname);
-                pdfData = apiClient.getTestPDF(classroomCode, testname);
-                totalQuestions = test.questionCount();
-
-                questionOrder = IntStream.range(0, totalQuestions).boxed().collect(Collectors.toList());
-                Collections.shuffle(questionOrder);
+        testFuture = apiClient.getTestAsync(classroomCode, testname);
+        pdfFuture = apiClient.getTestPDFAsync(classroomCode, testname).thenApply(data -> {
+            try {
+                return new PdfDocumentSession(data);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
 
-                return null;
+        EdtFutures.onEdt(testFuture, loaded -> {
+            if (disposed) return;
+            test = loaded;
+            if (!test.status().equals("ACTIVE")) {
+                dispose();
+                JOptionPane.showMessageDialog(mainFrame, "This test is no longer active.", "Test Ended", JOptionPane.INFORMATION_MESSAGE);
+                mainFrame.returnToMainWindow();
+                return;
             }
+            totalQuestions = test.questionCount();
+            questionOrder = IntStream.range(0, totalQuestions).boxed().collect(Collectors.toList());
+            Collections.shuffle(questionOrder);
+
+            Map<Integer, String> recovered = openJournal();
+            answers.putAll(recovered);
+            autosaver = new AnswerAutosaver(apiClient, classroomCode, testname, totalQuestions, answers::get, journal);
+            if (journal != null && journal.hasUnsyncedRecords()) {
+                journal.unsyncedQuestions().stream()
+                        .filter(question -> question < totalQuestions)
+                        .forEach(autosaver::markDirty);
+            }
+            for (Component comp : answerButtonPanel.getComponents()) {
+                comp.setEnabled(true);
+            }
+            buildQuestionNav();
+            renderPage(0);
+            startPolling();
+        }, error -> {
+            if (disposed) return;
+            pdfFuture.cancel(true);
+            pdfLabel.setText("Failed to load test: " + error.getMessage());
+        });
 
-            @Override
-            protected void done() {
-                try {
-                    get();
-                    if (!test.status().equals("ACTIVE")) {
-                        stopPolling();
-                        JOptionPane.showMessageDialog(mainFrame, "This test is no longer active.", "Test Ended", JOptionPane.INFORMATION_MESSAGE);
-                        mainFrame.returnToMainWindow();
-                        return;
-                    }
-                    buildQuestionNav();
-                    renderPage(0);
-                    startPolling();
-                } catch (Exception e) {
-                    pdfLabel.setText("Failed to load test: " + e.getMessage());
-                }
+        EdtFutures.onEdt(pdfFuture, session -> {
+            if (disposed) {
+                session.close();
+                return;
             }
-        }.execute();
+            pdfSession = session;
+            pagePrefetcher = new PdfPagePrefetcher(pdfSession, 2 * prefetchDepth + 3);
+            if (test != null) {
+                renderPage(currentPage);
+            }
+        }, error -> {
+            if (disposed) return;
+            pdfLabel.setIcon(null);
+            pdfLabel.setText("Failed to load test: " + error.getMessage());
+        });
+    }
+
+    private Map<Integer, String> openJournal() {
+        try {
+            journal = AnswerJournal.open(AuthService.getInstance().getUser().username(), classroomCode, testname);
+            Map<Integer, String> recovered = journal.replay();
+            recovered.keySet().removeIf(question -> question >= totalQuestions);
+            return recovered;
+        } catch (Exception e) {
+            System.err.println("Answer journal unavailable, continuing without it: " + e.getMessage());
+            return Map.of();
+        }
     }
 
     private int getRealQuestionIndex(int viewIndex) {
@@ -211,6 +283,7 @@ public class TestViewerPanel extends JPanel {
     }
 
     private void renderPage(int pageIndex) {
+        final boolean samePage = pageIndex == currentPage && pdfLabel.getIcon() != null;
         currentPage = pageIndex;
         final int realQuestionIndex = getRealQuestionIndex(currentPage);
 
@@ -218,36 +291,84 @@ public class TestViewerPanel extends JPanel {
         prevButton.setEnabled(currentPage > 0);
         nextButton.setEnabled(currentPage < totalQuestions - 1);
 
-        new SwingWorker<ImageIcon, Void>() {
-            @Override
-            protected ImageIcon doInBackground() {
-                int targetWidth = pdfScrollPane.getViewport().getWidth() > 0 ? pdfScrollPane.getViewport().getWidth() - 10 : 800;
-                if (targetWidth <= 0) targetWidth = 800;
-                return PdfUtil.getScaledPdfPage(pdfData, realQuestionIndex, targetWidth);
-            }
+        if (pagePrefetcher == null) {
+            pdfLabel.setText("Loading question...");
+            updateAnswerButtons();
+            updateQuestionNavHighlight();
+            return;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    ImageIcon image = get();
-                    pdfLabel.setText(null);
-                    pdfLabel.setIcon(image);
-                    SwingUtilities.invokeLater(() -> pdfScrollPane.getVerticalScrollBar().setValue(0));
-                } catch (Exception e) {
-                    pdfLabel.setIcon(null);
-                    pdfLabel.setText("Failed to render page " + (currentPage + 1));
-                }
+        final int targetWidth = getTargetWidth();
+        final double deviceScale = PdfUtil.getDeviceScale(pdfScrollPane);
+        renderedWidth = targetWidth;
+        ImageIcon cached = pagePrefetcher.getCached(realQuestionIndex, targetWidth, deviceScale);
+        if (cached != null) {
+            showPageImage(cached, !samePage);
+        } else {
+            if (!samePage) {
+                pdfLabel.setIcon(null);
+                pdfLabel.setText("Loading question...");
             }
-        }.execute();
+            EdtFutures.onEdt(pagePrefetcher.request(realQuestionIndex, targetWidth, deviceScale), icon -> {
+                if (disposed || pageIndex != currentPage || targetWidth != renderedWidth) return;
+                showPageImage(icon, !samePage);
+            }, error -> {
+                if (disposed || pageIndex != currentPage || targetWidth != renderedWidth) return;
+                pdfLabel.setIcon(null);
+                pdfLabel.setText("Failed to render page " + (currentPage + 1));
+            });
+        }
+        prefetchAround(pageIndex, targetWidth, deviceScale);
 
         updateAnswerButtons();
         updateQuestionNavHighlight();
     }
 
+    private void refreshPageForViewport() {
+        if (pagePrefetcher == null || totalQuestions == 0 || disposed) return;
+        if (getTargetWidth() != renderedWidth) {
+            renderPage(currentPage);
+        }
+    }
+
+    private int getTargetWidth() {
+        // Leave room for the vertical scrollbar up front so a tall page never triggers a second render
+        Insets insets = pdfScrollPane.getInsets();
+        int available = pdfScrollPane.getWidth() - insets.left - insets.right
+                - pdfScrollPane.getVerticalScrollBar().getPreferredSize().width;
+        return available > 10 ? available - 10 : 800;
+    }
+
+    private void showPageImage(ImageIcon image, boolean scrollToTop) {
+        if (image == null) {
+            pdfLabel.setIcon(null);
+            pdfLabel.setText("Failed to render page " + (currentPage + 1));
+            return;
+        }
+        pdfLabel.setText(null);
+        pdfLabel.setIcon(image);
+        if (scrollToTop) {
+            SwingUtilities.invokeLater(() -> pdfScrollPane.getVerticalScrollBar().setValue(0));
+        }
+    }
+
+    private void prefetchAround(int pageIndex, int targetWidth, double deviceScale) {
+        List<Integer> pages = new ArrayList<>();
+        for (int distance = 1; distance <= prefetchDepth; distance++) {
+            if (pageIndex + distance < totalQuestions) pages.add(getRealQuestionIndex(pageIndex + distance));
+            if (pageIndex - distance >= 0) pages.add(getRealQuestionIndex(pageIndex - distance));
+        }
+        pagePrefetcher.prefetch(pages, targetWidth, deviceScale);
+    }
+
     private void selectAnswer(String answer) {
-        if (isSubmitting) return;
+        if (isSubmitting || autosaver == null) return;
 
-        answers.put(getRealQuestionIndex(currentPage), answer);
+        int realQuestionIndex = getRealQuestionIndex(currentPage);
+        if (!answer.equals(answers.put(realQuestionIndex, answer))) {
+            if (journal != null) journal.append(realQuestionIndex, answer);
+            autosaver.markDirty(realQuestionIndex);
+        }
 
         updateAnswerButtons();
         updateQuestionNavHighlight();
@@ -309,15 +430,44 @@ public class TestViewerPanel extends JPanel {
     }
 
     public void startPolling() {
-        pollingTimer = new Timer(5000, e -> {
-            if(!isSubmitting) pollTestStatus();
+        statusWatcher = new TestStatusWatcher(apiClient, classroomCode, testname, status -> {
+            if (!isSubmitting && status.equals("ENDED")) {
+                submitTest(false);
+            }
         });
-        pollingTimer.start();
+        statusWatcher.start();
     }
 
     public void stopPolling() {
-        if (pollingTimer != null) {
-            pollingTimer.stop();
+        if (statusWatcher != null) {
+            statusWatcher.stop();
+        }
+    }
+
+    public void dispose() {
+        disposed = true;
+        if (testFuture != null) testFuture.cancel(true);
+        if (pdfFuture != null) pdfFuture.cancel(true);
+        stopPolling();
+        // Answers still waiting for the debounce (or a retry) go out now; the journal stays
+        // open until they land so the acknowledgement is recorded
+        CompletableFuture<Void> saved = autosaver != null
+                ? autosaver.stop(true)
+                : CompletableFuture.completedFuture(null);
+        AnswerJournal closing = journal;
+        saved.whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Failed to save remaining answers, keeping them in the local journal: "
+                        + EdtFutures.unwrap(error).getMessage());
+            }
+            if (closing != null) closing.close();
+        });
+        resizeTimer.stop();
+        if (pagePrefetcher != null) {
+            pagePrefetcher.close();
+        }
+        if (pdfSession != null) {
+            pdfSession.close();
         }
     }
 
@@ -327,87 +477,45 @@ public class TestViewerPanel extends JPanel {
                 .collect(Collectors.toList());
     }
 
-    private void saveAnswers() {
-        if (isSubmitting || answers.isEmpty()) return;
-
-        final List<String> answersToSave = getAnswersAsList();
-
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                apiClient.updateTestAnswers(classroomCode, testname, answersToSave);
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    get();
-                    System.out.println("Answers auto-saved at " + java.time.LocalTime.now());
-                } catch (Exception e) {
-                    System.err.println("Failed to auto-save answers: " + e.getMessage());
-                }
-            }
-        }.execute();
-    }
-
-    private void pollTestStatus() {
-        saveAnswers();
-
-        new SwingWorker<Test, Void>() {
-            @Override
-            protected Test doInBackground() throws Exception {
-                return apiClient.getTest(classroomCode, testname);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    Test updatedTest = get();
-                    if (updatedTest.status().equals("ENDED")) {
-                        submitTest(false);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Polling error: " + e.getMessage());
-                    stopPolling();
-                }
-            }
-        }.execute();
-    }
-
     public void submitTest(boolean isLockout) {
         if (isSubmitting) return;
         isSubmitting = true;
         stopPolling();
+        // The submission carries every answer, so only a save that is already in flight is
+        // waited for, keeping it from landing on the server after the submission
+        CompletableFuture<Void> saved = autosaver != null
+                ? autosaver.stop(false)
+                : CompletableFuture.completedFuture(null);
 
         List<String> answersArray = getAnswersAsList();
+        CompletableFuture<Void> submitted = saved.thenCompose(
+                ignored -> apiClient.submitTestAsync(classroomCode, testname, answersArray));
+
+        EdtFutures.onEdt(submitted, ignored -> {
+            if (journal != null) journal.delete();
+            showSubmitted(isLockout);
+        }, error -> {
+            System.err.println("Failed to submit test, keeping local answer journal: " + error.getMessage());
+            showSubmitted(isLockout);
+        });
+    }
 
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                apiClient.submitTest(classroomCode, testname, answersArray);
-                return null;
-            }
-
-            @Override
-            protected void done() {
-                if (!isLockout) {
-                    JOptionPane.showMessageDialog(mainFrame,
-                            "The test has been ended by the teacher. Your answers are submitted.",
-                            "Test Ended",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    mainFrame.returnToMainWindow();
-                }
-                else {
-                    JOptionPane.showMessageDialog(
-                            mainFrame,
-                            "You have been locked out. Your results are submitted.",
-                            "Test Locked",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                    mainFrame.returnToMainWindow();
-                }
-            }
-        }.execute();
+    private void showSubmitted(boolean isLockout) {
+        if (!isLockout) {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "The test has been ended by the teacher. Your answers are submitted.",
+                    "Test Ended",
+                    JOptionPane.INFORMATION_MESSAGE);
+            mainFrame.returnToMainWindow();
+        }
+        else {
+            JOptionPane.showMessageDialog(
+                    mainFrame,
+                    "You have been locked out. Your results are submitted.",
+                    "Test Locked",
+                    JOptionPane.ERROR_MESSAGE
+            );
+            mainFrame.returnToMainWindow();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.mcq.client.lib;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerJournalTest {
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    void useTempDataDir() {
+        System.setProperty("app.data.dir", dataDir.toString());
+    }
+
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("app.data.dir");
+    }
+
+    @Test
+    void replaysAnswersAfterReopening() throws IOException {
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            journal.append(0, "A");
+            journal.append(3, "C");
+            journal.append(0, "B");
+            journal.append(5, "D");
+            journal.append(5, "");
+        }
+
+        assertTrue(AnswerJournal.exists("alice", "PHY101", "midterm"));
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertEquals(Map.of(0, "B", 3, "C"), journal.replay());
+            assertEquals(5, journal.getRecordCount());
+            assertTrue(journal.hasUnsyncedRecords());
+        }
+    }
+
+    @Test
+    void keepsJournalsApartPerStudentAndTest() throws IOException {
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            journal.append(1, "A");
+        }
+        try (AnswerJournal journal = AnswerJournal.open("bob", "PHY101", "midterm")) {
+            assertTrue(journal.isEmpty());
+        }
+        assertFalse(AnswerJournal.exists("alice", "PHY101", "final"));
+    }
+
+    @Test
+    void onlyUnacknowledgedRecordsNeedSyncing() throws IOException {
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            journal.append(0, "A");
+            journal.append(1, "B");
+            journal.markSynced(2);
+            journal.append(2, "C");
+            journal.append(0, "D");
+        }
+
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertTrue(journal.hasUnsyncedRecords());
+            assertEquals(Set.of(0, 2), journal.unsyncedQuestions());
+
+            journal.markSynced(journal.getRecordCount());
+            assertFalse(journal.hasUnsyncedRecords());
+            assertTrue(journal.unsyncedQuestions().isEmpty());
+
+            journal.markSynced(1);
+            assertFalse(journal.hasUnsyncedRecords(), "an older ack never moves the mark back");
+        }
+    }
+
+    @Test
+    void stopsAtADamagedRecord() throws IOException {
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            journal.append(0, "A");
+            journal.append(1, "B");
+            journal.append(2, "C");
+        }
+
+        // Tear the last record, as an interrupted write would
+        Path file = journalFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer garbage = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort((short) 0x1234).flip();
+            channel.write(garbage, 16 + 2 * 8 + 6);
+        }
+
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertEquals(Map.of(0, "A", 1, "B"), journal.replay());
+            journal.append(2, "D");
+        }
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertEquals(Map.of(0, "A", 1, "B", 2, "D"), journal.replay());
+        }
+    }
+
+    @Test
+    void growsPastTheInitialMapping() throws IOException {
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            for (int i = 0; i < 20_000; i++) {
+                journal.append(i % 100, String.valueOf("ABCD".charAt(i % 4)));
+            }
+        }
+        try (AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertEquals(20_000, journal.getRecordCount());
+            assertEquals(100, journal.replay().size());
+        }
+    }
+
+    @Test
+    void deletedJournalIsNotRecovered() throws IOException {
+        AnswerJournal journal = AnswerJournal.open("alice", "PHY101", "midterm");
+        journal.append(0, "A");
+        journal.delete();
+
+        assertFalse(AnswerJournal.exists("alice", "PHY101", "midterm"));
+        try (AnswerJournal reopened = AnswerJournal.open("alice", "PHY101", "midterm")) {
+            assertTrue(reopened.isEmpty());
+            assertFalse(reopened.hasUnsyncedRecords());
+        }
+    }
+
+    private Path journalFile() throws IOException {
+        try (Stream<Path> files = Files.list(dataDir.resolve("journal"))) {
+            return files.filter(f -> f.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mcq.client.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 10_000);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.remainingOpenMillis() > 0);
+    }
+
+    @Test
+    void successfulProbeClosesTheBreaker() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "only one probe at a time");
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopensTheBreaker() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releasedProbeLetsTheNextCallerProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.releaseProbe();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void waitersAreToldWhenTheProbeSettles() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(20);
+        Thread.sleep(40);
+        assertNull(breaker.pendingProbe());
+
+        assertTrue(breaker.tryAcquire());
+        CompletableFuture<Void> probe = breaker.pendingProbe();
+        assertNotNull(probe);
+        assertEquals(0, breaker.remainingOpenMillis());
+        assertFalse(probe.isDone());
+
+        breaker.recordSuccess();
+        assertTrue(probe.isDone());
+        assertNull(breaker.pendingProbe());
+    }
+
+    @Test
+    void retryAfterKeepsTheBreakerOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(5, 10);
+        breaker.openFor(10_000);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.remainingOpenMillis() > 5_000);
+    }
+
+    private static CircuitBreaker openBreaker(long openMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(1, openMillis);
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
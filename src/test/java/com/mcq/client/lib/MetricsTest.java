@@ -0,0 +1,60 @@
+package com.mcq.client.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    // Every path ApiClient requests, with the series it should be counted under
+    private static final Map<String, String> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put("/api/auth/login", "/api/auth/login");
+        ENDPOINTS.put("/api/auth/register", "/api/auth/register");
+        ENDPOINTS.put("/api/auth/logout", "/api/auth/logout");
+        ENDPOINTS.put("/api/users/alice", "/api/users/{id}");
+        ENDPOINTS.put("/api/users?usernames=alice,bob", "/api/users");
+        ENDPOINTS.put("/api/classrooms", "/api/classrooms");
+        ENDPOINTS.put("/api/classrooms?filter=mine", "/api/classrooms");
+        ENDPOINTS.put("/api/classrooms/PHY101", "/api/classrooms/{id}");
+        ENDPOINTS.put("/api/classrooms/PHY101/join", "/api/classrooms/{id}/join");
+        ENDPOINTS.put("/api/classrooms/PHY101/remove/alice", "/api/classrooms/{id}/remove/{id}");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests", "/api/classrooms/{id}/tests");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm", "/api/classrooms/{id}/tests/{id}");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/start", "/api/classrooms/{id}/tests/{id}/start");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/end", "/api/classrooms/{id}/tests/{id}/end");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/pdf", "/api/classrooms/{id}/tests/{id}/pdf");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/events", "/api/classrooms/{id}/tests/{id}/events");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/submissions", "/api/classrooms/{id}/tests/{id}/submissions");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/submissions/submit", "/api/classrooms/{id}/tests/{id}/submissions/submit");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/submissions/update", "/api/classrooms/{id}/tests/{id}/submissions/update");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/submissions/answers", "/api/classrooms/{id}/tests/{id}/submissions/answers");
+        ENDPOINTS.put("/api/classrooms/PHY101/tests/midterm/submissions/my", "/api/classrooms/{id}/tests/{id}/submissions/my");
+        ENDPOINTS.put("/api/classrooms/student/active-test", "/api/classrooms/student/active-test");
+    }
+
+    @Test
+    void collapsesIdsInEveryApiClientEndpoint() {
+        ENDPOINTS.forEach((path, expected) -> assertEquals("GET " + expected,
+                Metrics.endpointKey("GET", URI.create("http://localhost:8080" + path)), path));
+    }
+
+    @Test
+    void keepsFixedRouteWordsAfterCollections() {
+        assertEquals("GET /api/classrooms/mine", Metrics.endpointKey("GET", URI.create("http://localhost/api/classrooms/mine")));
+        assertEquals("POST /api/classrooms/join", Metrics.endpointKey("POST", URI.create("http://localhost/api/classrooms/join")));
+        assertEquals("GET /api/classrooms/student/active-test",
+                Metrics.endpointKey("GET", URI.create("http://localhost/api/classrooms/student/active-test")));
+    }
+
+    @Test
+    void differentIdsShareOneSeries() {
+        assertEquals(Metrics.endpointKey("GET", URI.create("http://localhost/api/classrooms/A/tests/t1/pdf")),
+                Metrics.endpointKey("GET", URI.create("http://localhost/api/classrooms/B/tests/t2/pdf")));
+    }
+}
@@ -0,0 +1,148 @@
+package com.mcq.client.lib;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfDiskCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesAndReadsBackWithValidators() {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        byte[] pdf = pdf(1000, 1);
+        cache.store("PHY101/midterm", pdf, "\"v1\"", "Mon, 01 Jun 2026 10:00:00 GMT", -1);
+
+        PdfDiskCache.Entry entry = cache.lookup("PHY101/midterm");
+        assertNotNull(entry);
+        assertEquals("\"v1\"", entry.etag());
+        assertTrue(cache.isFresh(entry));
+        assertArrayEquals(pdf, cache.read("PHY101/midterm"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverBudget() throws InterruptedException {
+        PdfDiskCache cache = new PdfDiskCache(directory, 2500, 60_000);
+        cache.store("A/t", pdf(1000, 1), null, null, -1);
+        Thread.sleep(5);
+        cache.store("B/t", pdf(1000, 2), null, null, -1);
+        Thread.sleep(5);
+        assertNotNull(cache.read("A/t"));
+        Thread.sleep(5);
+
+        cache.store("C/t", pdf(1000, 3), null, null, -1);
+
+        assertNotNull(cache.lookup("A/t"));
+        assertNull(cache.lookup("B/t"), "least recently read entry goes first");
+        assertNotNull(cache.lookup("C/t"));
+        assertEquals(2, blobCount());
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() {
+        PdfDiskCache cache = new PdfDiskCache(directory, 2500, 60_000);
+        byte[] pdf = pdf(1000, 1);
+        cache.store("A/t", pdf, null, null, -1);
+        cache.store("B/t", pdf, null, null, -1);
+        cache.store("C/t", pdf(1000, 2), null, null, -1);
+
+        assertNotNull(cache.lookup("A/t"));
+        assertNotNull(cache.lookup("B/t"));
+        assertNotNull(cache.lookup("C/t"));
+        assertEquals(2, blobCount());
+    }
+
+    @Test
+    void discardsTruncatedBlob() throws IOException {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        cache.store("A/t", pdf(1000, 1), null, null, -1);
+
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            Path blob = blobs.findFirst().orElseThrow();
+            byte[] data = Files.readAllBytes(blob);
+            Files.write(blob, Arrays.copyOf(data, 500));
+        }
+
+        assertNull(cache.read("A/t"));
+        assertNull(cache.lookup("A/t"));
+        assertEquals(0, blobCount());
+    }
+
+    @Test
+    void storeRewritesTruncatedBlobWithSameHash() throws IOException {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        byte[] pdf = pdf(1000, 1);
+        cache.store("A/t", pdf, null, null, -1);
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            Path blob = blobs.findFirst().orElseThrow();
+            Files.write(blob, Arrays.copyOf(pdf, 500));
+        }
+
+        cache.store("B/t", pdf, null, null, -1);
+
+        assertArrayEquals(pdf, cache.read("A/t"));
+        assertArrayEquals(pdf, cache.read("B/t"));
+    }
+
+    @Test
+    void forgetsEntriesWhoseBlobIsMissing() throws IOException {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        cache.store("A/t", pdf(1000, 1), null, null, -1);
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            for (Path blob : blobs.toList()) Files.delete(blob);
+        }
+
+        assertNull(cache.lookup("A/t"));
+    }
+
+    @Test
+    void startsEmptyWhenTheIndexIsCorrupt() throws IOException {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        cache.store("A/t", pdf(1000, 1), null, null, -1);
+        Files.writeString(directory.resolve("index.json"), "{\"A/t\": [", StandardCharsets.UTF_8);
+
+        PdfDiskCache reopened = new PdfDiskCache(directory, 1 << 20, 60_000);
+        assertNull(reopened.lookup("A/t"));
+        reopened.store("A/t", pdf(1000, 1), null, null, -1);
+        assertNotNull(reopened.read("A/t"));
+    }
+
+    @Test
+    void accessTimesReachDiskOnFlush() {
+        PdfDiskCache cache = new PdfDiskCache(directory, 1 << 20, 60_000);
+        cache.store("A/t", pdf(1000, 1), null, null, -1);
+        long stored = cache.lookup("A/t").lastAccess();
+        cache.markRevalidated("A/t", 120_000);
+        cache.flush();
+
+        PdfDiskCache reopened = new PdfDiskCache(directory, 1 << 20, 60_000);
+        PdfDiskCache.Entry entry = reopened.lookup("A/t");
+        assertNotNull(entry);
+        assertTrue(entry.lastAccess() >= stored);
+        assertTrue(entry.freshUntil() > System.currentTimeMillis() + 90_000);
+    }
+
+    private long blobCount() {
+        try (Stream<Path> blobs = Files.list(directory.resolve("blobs"))) {
+            return blobs.filter(p -> p.toString().endsWith(".pdf")).count();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] pdf(int size, int fill) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) fill);
+        return data;
+    }
+}
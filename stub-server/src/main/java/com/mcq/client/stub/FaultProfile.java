@@ -0,0 +1,60 @@
+package com.mcq.client.stub;
+
+import java.util.regex.Pattern;
+
+/**
+ * What the stub does to requests whose path matches {@code paths}: added
+ * latency, a per-connection bandwidth cap, injected error responses and
+ * dropped connections. Rates are probabilities between 0 and 1.
+ */
+public record FaultProfile(
+        long latencyMillis,
+        long jitterMillis,
+        long bytesPerSecond,
+        double errorRate,
+        int errorStatus,
+        long retryAfterSeconds,
+        double dropRate,
+        Pattern paths
+) {
+
+    public static FaultProfile none() {
+        return new FaultProfile(0, 0, 0, 0, 503, 0, 0, Pattern.compile(".*"));
+    }
+
+    public static FaultProfile fromSystemProperties() {
+        return new FaultProfile(
+                Long.getLong("stub.latency.ms", 0),
+                Long.getLong("stub.latency.jitter.ms", 0),
+                Long.getLong("stub.bandwidth.kbps", 0) * 1024 / 8,
+                Double.parseDouble(System.getProperty("stub.error.rate", "0")),
+                Integer.getInteger("stub.error.status", 503),
+                Long.getLong("stub.error.retry.after.seconds", 0),
+                Double.parseDouble(System.getProperty("stub.drop.rate", "0")),
+                Pattern.compile(System.getProperty("stub.fault.paths", ".*")));
+    }
+
+    public FaultProfile withLatency(long latencyMillis, long jitterMillis) {
+        return new FaultProfile(latencyMillis, jitterMillis, bytesPerSecond, errorRate, errorStatus, retryAfterSeconds, dropRate, paths);
+    }
+
+    public FaultProfile withBandwidth(long bytesPerSecond) {
+        return new FaultProfile(latencyMillis, jitterMillis, bytesPerSecond, errorRate, errorStatus, retryAfterSeconds, dropRate, paths);
+    }
+
+    public FaultProfile withErrors(double errorRate, int errorStatus, long retryAfterSeconds) {
+        return new FaultProfile(latencyMillis, jitterMillis, bytesPerSecond, errorRate, errorStatus, retryAfterSeconds, dropRate, paths);
+    }
+
+    public FaultProfile withDropRate(double dropRate) {
+        return new FaultProfile(latencyMillis, jitterMillis, bytesPerSecond, errorRate, errorStatus, retryAfterSeconds, dropRate, paths);
+    }
+
+    public FaultProfile onPaths(String regex) {
+        return new FaultProfile(latencyMillis, jitterMillis, bytesPerSecond, errorRate, errorStatus, retryAfterSeconds, dropRate, Pattern.compile(regex));
+    }
+
+    boolean appliesTo(String path) {
+        return paths.matcher(path).matches();
+    }
+}
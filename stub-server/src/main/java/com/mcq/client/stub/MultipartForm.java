@@ -0,0 +1,85 @@
+package com.mcq.client.stub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Just enough multipart/form-data parsing for the test upload: repeated text
+ * fields and file parts, with the whole body already in memory.
+ */
+class MultipartForm {
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?");
+    private static final Pattern NAME = Pattern.compile("name=\"([^\"]*)\"");
+    private static final Pattern FILENAME = Pattern.compile("filename=\"([^\"]*)\"");
+
+    private final Map<String, List<String>> fields = new LinkedHashMap<>();
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    static MultipartForm parse(String contentType, byte[] body) {
+        Matcher boundaryMatch = contentType != null ? BOUNDARY.matcher(contentType) : null;
+        if (boundaryMatch == null || !boundaryMatch.find()) {
+            throw new IllegalArgumentException("Missing multipart boundary");
+        }
+        byte[] delimiter = ("--" + boundaryMatch.group(1)).getBytes(StandardCharsets.ISO_8859_1);
+        MultipartForm form = new MultipartForm();
+
+        int start = indexOf(body, delimiter, 0);
+        while (start >= 0) {
+            int partStart = start + delimiter.length;
+            if (partStart + 1 < body.length && body[partStart] == '-' && body[partStart + 1] == '-') break;
+            partStart += 2; // CRLF after the delimiter
+            int next = indexOf(body, delimiter, partStart);
+            if (next < 0) break;
+
+            int headerEnd = indexOf(body, "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1), partStart);
+            if (headerEnd < 0 || headerEnd > next) break;
+            String headers = new String(body, partStart, headerEnd - partStart, StandardCharsets.UTF_8);
+            int contentStart = headerEnd + 4;
+            int contentEnd = Math.max(contentStart, next - 2); // CRLF before the next delimiter
+
+            Matcher name = NAME.matcher(headers);
+            if (name.find()) {
+                if (FILENAME.matcher(headers).find()) {
+                    byte[] content = new byte[contentEnd - contentStart];
+                    System.arraycopy(body, contentStart, content, 0, content.length);
+                    form.files.put(name.group(1), content);
+                } else {
+                    form.fields.computeIfAbsent(name.group(1), k -> new ArrayList<>())
+                            .add(new String(body, contentStart, contentEnd - contentStart, StandardCharsets.UTF_8));
+                }
+            }
+            start = next;
+        }
+        return form;
+    }
+
+    String field(String name) {
+        List<String> values = fields.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    List<String> fields(String name) {
+        return fields.getOrDefault(name, List.of());
+    }
+
+    byte[] file(String name) {
+        return files.get(name);
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = Math.max(0, from); i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,339 @@
+package com.mcq.client.stub;
+
+import com.google.gson.Gson;
+import com.mcq.client.lib.Models.AnswerDelta;
+import com.mcq.client.lib.Models.ClassroomDTO;
+import com.mcq.client.lib.Models.RegisterRequest;
+import com.mcq.client.lib.Models.StudentResultDTO;
+import com.mcq.client.lib.Models.TeacherResultsDTO;
+import com.mcq.client.lib.Models.Test;
+import com.mcq.client.lib.Models.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory state behind {@link StubServer}, seeded from
+ * {@code /stub/fixtures.json}. Classroom and test structure is guarded by
+ * this object's lock; answers live in concurrent maps because they take
+ * most of the traffic.
+ */
+public class StubData {
+
+    public static final String DEFAULT_PASSWORD = "password";
+
+    private record FixtureUser(String firstname, String lastname, String email, String username, String role, String password) {}
+
+    private record FixtureTest(String testname, String pdf, List<String> correctAnswers, String status) {}
+
+    private record FixtureClassroom(String code, String classroomname, String teacher, List<String> students, List<FixtureTest> tests) {}
+
+    private record Fixtures(List<FixtureUser> users, List<FixtureClassroom> classrooms) {}
+
+    private record Account(User user, String password) {}
+
+    static class TestState {
+        final int id;
+        final String classroomCode;
+        final String testname;
+        final List<String> correctAnswers;
+        final byte[] pdf;
+        final String etag;
+        volatile String status;
+        final Map<String, List<String>> answers = new ConcurrentHashMap<>();
+        final Map<String, Long> versions = new ConcurrentHashMap<>();
+        final Set<String> submitted = ConcurrentHashMap.newKeySet();
+
+        TestState(int id, String classroomCode, String testname, List<String> correctAnswers, byte[] pdf, String status) {
+            this.id = id;
+            this.classroomCode = classroomCode;
+            this.testname = testname;
+            this.correctAnswers = List.copyOf(correctAnswers);
+            this.pdf = pdf;
+            this.etag = "\"" + sha256(pdf).substring(0, 16) + "\"";
+            this.status = status;
+        }
+    }
+
+    private static class ClassroomState {
+        final String code;
+        final String name;
+        final String teacher;
+        final Set<String> students = new LinkedHashSet<>();
+        final Map<String, TestState> tests = new LinkedHashMap<>();
+
+        ClassroomState(String code, String name, String teacher) {
+            this.code = code;
+            this.name = name;
+            this.teacher = teacher;
+        }
+    }
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<String, ClassroomState> classrooms = new LinkedHashMap<>();
+    private final AtomicInteger nextTestId = new AtomicInteger(1);
+    private final AtomicInteger nextClassroomId = new AtomicInteger(1);
+
+    public static StubData fromFixtures() {
+        StubData data = new StubData();
+        Fixtures fixtures;
+        try (InputStream in = resource("fixtures.json")) {
+            fixtures = new Gson().fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), Fixtures.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (FixtureUser u : fixtures.users()) {
+            data.accounts.put(u.username(), new Account(new User(u.firstname(), u.lastname(), u.email(), u.username(), u.role()),
+                    u.password() != null ? u.password() : DEFAULT_PASSWORD));
+        }
+        for (FixtureClassroom c : fixtures.classrooms()) {
+            ClassroomState classroom = new ClassroomState(c.code(), c.classroomname(), c.teacher());
+            classroom.students.addAll(c.students());
+            for (FixtureTest t : c.tests()) {
+                classroom.tests.put(t.testname(), new TestState(data.nextTestId.getAndIncrement(), c.code(), t.testname(),
+                        t.correctAnswers(), readResource(t.pdf()), t.status()));
+            }
+            data.classrooms.put(c.code(), classroom);
+        }
+        return data;
+    }
+
+    /** Adds {@code count} students named student00001... with the default password to a classroom. */
+    public synchronized List<String> generateStudents(String classroomCode, int count) {
+        ClassroomState classroom = classrooms.get(classroomCode);
+        if (classroom == null) throw new IllegalArgumentException("Unknown classroom " + classroomCode);
+        List<String> usernames = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String username = String.format("student%05d", i);
+            accounts.putIfAbsent(username, new Account(new User("Student", String.valueOf(i), username + "@school.example",
+                    username, "ROLE_STUDENT"), DEFAULT_PASSWORD));
+            classroom.students.add(username);
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    // --- users ---
+
+    public boolean authenticate(String username, String password) {
+        Account account = accounts.get(username);
+        return account != null && account.password().equals(password);
+    }
+
+    public boolean register(RegisterRequest request) {
+        String role = "TEACHER".equalsIgnoreCase(request.role()) || "ROLE_TEACHER".equals(request.role()) ? "ROLE_TEACHER" : "ROLE_STUDENT";
+        User user = new User(request.firstname(), request.lastname(), request.email(), request.username(), role);
+        return accounts.putIfAbsent(request.username(), new Account(user, request.password())) == null;
+    }
+
+    public User user(String username) {
+        Account account = accounts.get(username);
+        return account != null ? account.user() : null;
+    }
+
+    public boolean isTeacher(String username) {
+        User user = user(username);
+        return user != null && (user.role().equals("ROLE_TEACHER") || user.role().equals("ROLE_ADMIN"));
+    }
+
+    // --- classrooms ---
+
+    public synchronized List<ClassroomDTO> classroomsFor(String username) {
+        List<ClassroomDTO> result = new ArrayList<>();
+        for (ClassroomState classroom : classrooms.values()) {
+            if (classroom.teacher.equals(username) || classroom.students.contains(username)) {
+                result.add(toDto(classroom));
+            }
+        }
+        return result;
+    }
+
+    public synchronized ClassroomDTO classroom(String code) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null ? toDto(classroom) : null;
+    }
+
+    public synchronized boolean canAccess(String code, String username) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null && (classroom.teacher.equals(username) || classroom.students.contains(username));
+    }
+
+    public synchronized boolean isOwner(String code, String username) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null && classroom.teacher.equals(username);
+    }
+
+    public synchronized ClassroomDTO createClassroom(String name, String teacher) {
+        String code;
+        do {
+            code = String.format("C%05d", nextClassroomId.getAndIncrement());
+        } while (classrooms.containsKey(code));
+        ClassroomState classroom = new ClassroomState(code, name, teacher);
+        classrooms.put(code, classroom);
+        return toDto(classroom);
+    }
+
+    public synchronized boolean join(String code, String username) {
+        ClassroomState classroom = classrooms.get(code);
+        if (classroom == null) return false;
+        classroom.students.add(username);
+        return true;
+    }
+
+    public synchronized boolean removeStudent(String code, String username) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null && classroom.students.remove(username);
+    }
+
+    // --- tests ---
+
+    public synchronized List<Test> tests(String code, boolean includeAnswers) {
+        ClassroomState classroom = classrooms.get(code);
+        if (classroom == null) return null;
+        List<Test> result = new ArrayList<>();
+        for (TestState test : classroom.tests.values()) {
+            result.add(toDto(classroom, test, includeAnswers));
+        }
+        return result;
+    }
+
+    synchronized TestState testState(String code, String testname) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null ? classroom.tests.get(testname) : null;
+    }
+
+    public synchronized Test test(String code, String testname, boolean includeAnswers) {
+        ClassroomState classroom = classrooms.get(code);
+        TestState test = classroom != null ? classroom.tests.get(testname) : null;
+        return test != null ? toDto(classroom, test, includeAnswers) : null;
+    }
+
+    public synchronized Test createTest(String code, String testname, byte[] pdf, List<String> correctAnswers) {
+        ClassroomState classroom = classrooms.get(code);
+        if (classroom == null || classroom.tests.containsKey(testname)) return null;
+        TestState test = new TestState(nextTestId.getAndIncrement(), code, testname, correctAnswers, pdf, "NOT_STARTED");
+        classroom.tests.put(testname, test);
+        return toDto(classroom, test, true);
+    }
+
+    public synchronized boolean deleteTest(String code, String testname) {
+        ClassroomState classroom = classrooms.get(code);
+        return classroom != null && classroom.tests.remove(testname) != null;
+    }
+
+    public synchronized Test setStatus(String code, String testname, String status) {
+        ClassroomState classroom = classrooms.get(code);
+        TestState test = classroom != null ? classroom.tests.get(testname) : null;
+        if (test == null) return null;
+        test.status = status;
+        return toDto(classroom, test, true);
+    }
+
+    public synchronized Test activeTestFor(String username) {
+        for (ClassroomState classroom : classrooms.values()) {
+            if (!classroom.students.contains(username)) continue;
+            for (TestState test : classroom.tests.values()) {
+                if ("ACTIVE".equals(test.status) && !test.submitted.contains(username)) {
+                    return toDto(classroom, test, false);
+                }
+            }
+        }
+        return null;
+    }
+
+    // --- submissions ---
+
+    public void saveAnswers(TestState test, String username, List<String> answers) {
+        test.answers.put(username, List.copyOf(answers));
+    }
+
+    /** Applies a delta; false if it is older than what was already applied. */
+    public boolean applyDelta(TestState test, String username, AnswerDelta delta) {
+        synchronized (test) {
+            long current = test.versions.getOrDefault(username, 0L);
+            if (delta.version() <= current) return false;
+            List<String> answers = new ArrayList<>(test.answers.getOrDefault(username, List.of()));
+            while (answers.size() < test.correctAnswers.size()) answers.add("");
+            delta.answers().forEach((index, answer) -> {
+                if (index >= 0 && index < answers.size()) answers.set(index, answer != null ? answer : "");
+            });
+            test.answers.put(username, answers);
+            test.versions.put(username, delta.version());
+            return true;
+        }
+    }
+
+    public void submit(TestState test, String username, List<String> answers) {
+        test.answers.put(username, List.copyOf(answers));
+        test.submitted.add(username);
+    }
+
+    public StudentResultDTO submission(TestState test, String username) {
+        List<String> answers = test.answers.get(username);
+        if (answers == null) return null;
+        return new StudentResultDTO(user(username), answers, test.correctAnswers, score(test, answers),
+                test.correctAnswers.size(), null);
+    }
+
+    public TeacherResultsDTO results(TestState test) {
+        List<StudentResultDTO> submissions = new ArrayList<>();
+        for (String username : test.submitted) {
+            submissions.add(submission(test, username));
+        }
+        return new TeacherResultsDTO(test.correctAnswers, test.correctAnswers.size(), submissions);
+    }
+
+    private static int score(TestState test, List<String> answers) {
+        int score = 0;
+        for (int q = 0; q < Math.min(answers.size(), test.correctAnswers.size()); q++) {
+            if (test.correctAnswers.get(q).equals(answers.get(q))) score++;
+        }
+        return score;
+    }
+
+    private ClassroomDTO toDto(ClassroomState classroom) {
+        return new ClassroomDTO(classroom.code, classroom.name, user(classroom.teacher), List.copyOf(classroom.students));
+    }
+
+    private Test toDto(ClassroomState classroom, TestState test, boolean includeAnswers) {
+        ClassroomDTO summary = new ClassroomDTO(classroom.code, classroom.name, user(classroom.teacher), null);
+        return new Test(test.id, test.testname, "tests/" + classroom.code + "/" + test.testname + ".pdf",
+                includeAnswers ? test.correctAnswers : null, test.status, summary, test.correctAnswers.size());
+    }
+
+    private static InputStream resource(String name) {
+        InputStream in = StubData.class.getResourceAsStream("/stub/" + name);
+        if (in == null) throw new IllegalStateException("Missing stub fixture: " + name);
+        return in;
+    }
+
+    private static byte[] readResource(String name) {
+        try (InputStream in = resource(name)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
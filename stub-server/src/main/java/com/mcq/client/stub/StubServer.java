@@ -0,0 +1,652 @@
+package com.mcq.client.stub;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.mcq.client.lib.Models.AnswerDelta;
+import com.mcq.client.lib.Models.ApiError;
+import com.mcq.client.lib.Models.LoginRequest;
+import com.mcq.client.lib.Models.RegisterRequest;
+import com.mcq.client.lib.Models.StudentResultDTO;
+import com.mcq.client.lib.Models.Test;
+import com.mcq.client.lib.Models.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stand-in for the backend on {@code com.sun.net.httpserver}, implementing
+ * every endpoint {@code ApiClient} calls against {@link StubData}. Sessions
+ * are a JSESSIONID cookie, like the real server. A {@link FaultProfile} adds
+ * latency, caps bandwidth, injects error responses and drops connections,
+ * and can be swapped while the server runs.
+ *
+ * Standalone settings (system properties): stub.port (8080), stub.students
+ * (extra generated students in PHY101), stub.gzip, plus the stub.* fault
+ * settings read by {@link FaultProfile#fromSystemProperties()}.
+ */
+public class StubServer implements AutoCloseable {
+
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final String T = "/api/classrooms/([^/]+)/tests/([^/]+)";
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(Call call) throws IOException;
+    }
+
+    private record Route(String method, Pattern path, boolean authenticated, Handler handler) {}
+
+    private record Call(HttpExchange exchange, Matcher params, String username, FaultProfile faults) {
+        String param(int group) {
+            return params.group(group);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final StubData data;
+    private final Gson gson = new Gson();
+    private final Random random = new Random();
+    private final boolean gzipResponses;
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<HttpExchange>> statusSubscribers = new ConcurrentHashMap<>();
+    private final List<Route> routes = new ArrayList<>();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder droppedConnections = new LongAdder();
+    private volatile FaultProfile faults;
+
+    private StubServer(InetSocketAddress address, StubData data, FaultProfile faults, boolean gzipResponses) throws IOException {
+        this.data = data;
+        this.faults = faults;
+        this.gzipResponses = gzipResponses;
+        this.server = HttpServer.create(address, 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        registerRoutes();
+    }
+
+    public static StubServer start() throws IOException {
+        return start(0, StubData.fromFixtures(), FaultProfile.none(), false);
+    }
+
+    /** Port 0 picks a free port; the server only listens on loopback. */
+    public static StubServer start(int port, StubData data, FaultProfile faults, boolean gzipResponses) throws IOException {
+        StubServer stub = new StubServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), data, faults, gzipResponses);
+        stub.server.start();
+        return stub;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public StubData getData() {
+        return data;
+    }
+
+    public FaultProfile getFaults() {
+        return faults;
+    }
+
+    public void setFaults(FaultProfile faults) {
+        this.faults = faults;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    public long getDroppedConnectionCount() {
+        return droppedConnections.sum();
+    }
+
+    // Status streams the stub still considers open; a client that went away is noticed on the next event
+    public int getStatusSubscriberCount() {
+        return statusSubscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public void close() {
+        statusSubscribers.values().forEach(list -> list.forEach(HttpExchange::close));
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void registerRoutes() {
+        route("POST", "/api/auth/login", false, this::login);
+        route("POST", "/api/auth/register", false, this::register);
+        route("POST", "/api/auth/logout", false, this::logout);
+
+        route("GET", "/api/users", true, this::getUsers);
+        route("GET", "/api/users/([^/]+)", true, this::getUser);
+
+        route("GET", "/api/classrooms/student/active-test", true, this::getActiveTest);
+        route("GET", "/api/classrooms", true, call -> json(call, 200, data.classroomsFor(call.username())));
+        route("POST", "/api/classrooms", true, this::createClassroom);
+        route("GET", "/api/classrooms/([^/]+)", true, this::getClassroom);
+        route("POST", "/api/classrooms/([^/]+)/join", true, this::joinClassroom);
+        route("DELETE", "/api/classrooms/([^/]+)/remove/([^/]+)", true, this::removeStudent);
+
+        route("GET", "/api/classrooms/([^/]+)/tests", true, this::getTests);
+        route("POST", "/api/classrooms/([^/]+)/tests", true, this::createTest);
+        route("GET", T, true, this::getTest);
+        route("DELETE", T, true, this::deleteTest);
+        route("POST", T + "/start", true, call -> setStatus(call, "ACTIVE"));
+        route("POST", T + "/end", true, call -> setStatus(call, "ENDED"));
+        route("GET", T + "/pdf", true, this::getPdf);
+        route("GET", T + "/events", true, this::subscribeEvents);
+
+        route("POST", T + "/submissions/submit", true, this::submit);
+        route("POST", T + "/submissions/update", true, this::updateAnswers);
+        route("PATCH", T + "/submissions/answers", true, this::updateAnswersDelta);
+        route("GET", T + "/submissions/my", true, this::getMySubmission);
+        route("GET", T + "/submissions", true, this::getAllSubmissions);
+    }
+
+    private void route(String method, String path, boolean authenticated, Handler handler) {
+        routes.add(new Route(method, Pattern.compile(path), authenticated, handler));
+    }
+
+    private void handle(HttpExchange exchange) {
+        requestCount.increment();
+        String path = exchange.getRequestURI().getPath();
+        FaultProfile profile = faults.appliesTo(path) ? faults : FaultProfile.none();
+        try {
+            sleep(profile.latencyMillis() + (profile.jitterMillis() > 0 ? random.nextLong(profile.jitterMillis() + 1) : 0));
+
+            if (profile.dropRate() > 0 && random.nextDouble() < profile.dropRate()) {
+                droppedConnections.increment();
+                exchange.close(); // before any response headers this closes the socket
+                return;
+            }
+            if (profile.errorRate() > 0 && random.nextDouble() < profile.errorRate()) {
+                injectedErrors.increment();
+                if (profile.retryAfterSeconds() > 0) {
+                    exchange.getResponseHeaders().add("Retry-After", String.valueOf(profile.retryAfterSeconds()));
+                }
+                error(exchange, profile, profile.errorStatus(), "Injected fault");
+                return;
+            }
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            dispatch(exchange, path, profile);
+        } catch (Exception e) {
+            try {
+                error(exchange, profile, 500, "Stub failure: " + e);
+            } catch (IOException ignored) {
+                exchange.close();
+            }
+        }
+    }
+
+    private void dispatch(HttpExchange exchange, String path, FaultProfile profile) throws IOException {
+        boolean pathMatched = false;
+        for (Route route : routes) {
+            Matcher matcher = route.path().matcher(path);
+            if (!matcher.matches()) continue;
+            pathMatched = true;
+            if (!route.method().equals(exchange.getRequestMethod())) continue;
+
+            String username = sessionUser(exchange);
+            if (route.authenticated() && username == null) {
+                error(exchange, profile, 401, "Unauthorized");
+                return;
+            }
+            route.handler().handle(new Call(exchange, matcher, username, profile));
+            return;
+        }
+        error(exchange, profile, pathMatched ? 405 : 404, pathMatched ? "Method not allowed" : "Not found: " + path);
+    }
+
+    // --- auth and users ---
+
+    private void login(Call call) throws IOException {
+        LoginRequest request = readJson(call, LoginRequest.class);
+        if (request == null || !data.authenticate(request.username(), request.password())) {
+            error(call, 401, "Invalid username or password");
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, request.username());
+        call.exchange().getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly");
+        empty(call, 200);
+    }
+
+    private void register(Call call) throws IOException {
+        RegisterRequest request = readJson(call, RegisterRequest.class);
+        if (request == null || request.username() == null || request.password() == null) {
+            error(call, 400, "Username and password are required");
+        } else if (!data.register(request)) {
+            error(call, 409, "Username already exists");
+        } else {
+            empty(call, 200);
+        }
+    }
+
+    private void logout(Call call) throws IOException {
+        String token = sessionToken(call.exchange());
+        if (token != null) sessions.remove(token);
+        call.exchange().getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+        empty(call, 200);
+    }
+
+    private void getUsers(Call call) throws IOException {
+        String usernames = queryParam(call.exchange(), "usernames");
+        if (usernames == null) {
+            error(call, 400, "usernames is required");
+            return;
+        }
+        List<User> users = new ArrayList<>();
+        for (String username : usernames.split(",")) {
+            User user = data.user(username);
+            if (user != null) users.add(user);
+        }
+        json(call, 200, users);
+    }
+
+    private void getUser(Call call) throws IOException {
+        User user = data.user(call.param(1));
+        if (user == null) error(call, 404, "User not found");
+        else json(call, 200, user);
+    }
+
+    // --- classrooms ---
+
+    private void createClassroom(Call call) throws IOException {
+        if (!data.isTeacher(call.username())) {
+            error(call, 403, "Only teachers can create classrooms");
+            return;
+        }
+        Map<String, String> body = readJson(call, new TypeToken<Map<String, String>>() {});
+        String name = body != null ? body.get("classroomname") : null;
+        if (name == null || name.isBlank()) {
+            error(call, 400, "classroomname is required");
+            return;
+        }
+        json(call, 200, data.createClassroom(name, call.username()));
+    }
+
+    private void getClassroom(Call call) throws IOException {
+        String code = call.param(1);
+        if (data.classroom(code) == null) error(call, 404, "Classroom not found");
+        else if (!data.canAccess(code, call.username())) error(call, 403, "Not a member of this classroom");
+        else json(call, 200, data.classroom(code));
+    }
+
+    private void joinClassroom(Call call) throws IOException {
+        if (data.join(call.param(1), call.username())) empty(call, 200);
+        else error(call, 404, "Classroom not found");
+    }
+
+    private void removeStudent(Call call) throws IOException {
+        if (!requireOwner(call)) return;
+        if (data.removeStudent(call.param(1), call.param(2))) empty(call, 200);
+        else error(call, 404, "Student not in classroom");
+    }
+
+    // --- tests ---
+
+    private void getTests(Call call) throws IOException {
+        String code = call.param(1);
+        if (!requireMember(call)) return;
+        json(call, 200, data.tests(code, data.isOwner(code, call.username())));
+    }
+
+    private void createTest(Call call) throws IOException {
+        if (!requireOwner(call)) return;
+        MultipartForm form;
+        try {
+            form = MultipartForm.parse(call.exchange().getRequestHeaders().getFirst("Content-Type"), readBody(call.exchange()));
+        } catch (IllegalArgumentException e) {
+            error(call, 400, e.getMessage());
+            return;
+        }
+        String testname = form.field("testname");
+        byte[] pdf = form.file("pdfFile");
+        if (testname == null || pdf == null) {
+            error(call, 400, "testname and pdfFile are required");
+            return;
+        }
+        Test test = data.createTest(call.param(1), testname, pdf, form.fields("correctAnswers"));
+        if (test == null) error(call, 409, "Test already exists");
+        else json(call, 200, test);
+    }
+
+    private void getTest(Call call) throws IOException {
+        if (!requireMember(call)) return;
+        Test test = data.test(call.param(1), call.param(2), data.isOwner(call.param(1), call.username()));
+        if (test == null) error(call, 404, "Test not found");
+        else json(call, 200, test);
+    }
+
+    private void deleteTest(Call call) throws IOException {
+        if (!requireOwner(call)) return;
+        if (data.deleteTest(call.param(1), call.param(2))) empty(call, 200);
+        else error(call, 404, "Test not found");
+    }
+
+    private void setStatus(Call call, String status) throws IOException {
+        if (!requireOwner(call)) return;
+        Test test = data.setStatus(call.param(1), call.param(2), status);
+        if (test == null) {
+            error(call, 404, "Test not found");
+            return;
+        }
+        publishStatus(call.param(1) + "/" + call.param(2), test);
+        empty(call, 200);
+    }
+
+    private void getPdf(Call call) throws IOException {
+        if (!requireMember(call)) return;
+        StubData.TestState test = data.testState(call.param(1), call.param(2));
+        if (test == null) {
+            error(call, 404, "Test not found");
+            return;
+        }
+        HttpExchange exchange = call.exchange();
+        exchange.getResponseHeaders().add("ETag", test.etag);
+        exchange.getResponseHeaders().add("Cache-Control", "max-age=300");
+        if (test.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/pdf");
+        send(exchange, call.faults(), 200, test.pdf, false);
+    }
+
+    private void subscribeEvents(Call call) throws IOException {
+        if (!requireMember(call)) return;
+        Test test = data.test(call.param(1), call.param(2), false);
+        if (test == null) {
+            error(call, 404, "Test not found");
+            return;
+        }
+        HttpExchange exchange = call.exchange();
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        String key = call.param(1) + "/" + call.param(2);
+        List<HttpExchange> subscribers = statusSubscribers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+        subscribers.add(exchange);
+        if (!writeEvent(exchange, test)) subscribers.remove(exchange);
+        // The exchange stays open; publishStatus writes to it until the client goes away
+    }
+
+    private void publishStatus(String key, Test test) {
+        List<HttpExchange> subscribers = statusSubscribers.get(key);
+        if (subscribers == null) return;
+        for (HttpExchange exchange : subscribers) {
+            if (!writeEvent(exchange, test)) subscribers.remove(exchange);
+        }
+    }
+
+    private boolean writeEvent(HttpExchange exchange, Test test) {
+        byte[] event = ("event: status\ndata: " + gson.toJson(test) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (exchange) {
+            try {
+                exchange.getResponseBody().write(event);
+                exchange.getResponseBody().flush();
+                return true;
+            } catch (IOException e) {
+                exchange.close();
+                return false;
+            }
+        }
+    }
+
+    // --- submissions ---
+
+    private void submit(Call call) throws IOException {
+        StubData.TestState test = activeTest(call);
+        if (test == null) return;
+        List<String> answers = readJson(call, new TypeToken<List<String>>() {});
+        if (answers == null) {
+            error(call, 400, "Answers are required");
+            return;
+        }
+        data.submit(test, call.username(), answers);
+        empty(call, 200);
+    }
+
+    private void updateAnswers(Call call) throws IOException {
+        StubData.TestState test = activeTest(call);
+        if (test == null) return;
+        List<String> answers = readJson(call, new TypeToken<List<String>>() {});
+        if (answers == null) {
+            error(call, 400, "Answers are required");
+            return;
+        }
+        data.saveAnswers(test, call.username(), answers);
+        empty(call, 200);
+    }
+
+    private void updateAnswersDelta(Call call) throws IOException {
+        StubData.TestState test = activeTest(call);
+        if (test == null) return;
+        AnswerDelta delta = readJson(call, AnswerDelta.class);
+        if (delta == null || delta.answers() == null) {
+            error(call, 400, "Answers are required");
+        } else if (!data.applyDelta(test, call.username(), delta)) {
+            error(call, 409, "Stale answer version " + delta.version());
+        } else {
+            empty(call, 200);
+        }
+    }
+
+    private void getMySubmission(Call call) throws IOException {
+        if (!requireMember(call)) return;
+        StubData.TestState test = data.testState(call.param(1), call.param(2));
+        StudentResultDTO result = test != null ? data.submission(test, call.username()) : null;
+        if (result == null) error(call, 404, "No submission found");
+        else json(call, 200, result);
+    }
+
+    private void getAllSubmissions(Call call) throws IOException {
+        if (!requireOwner(call)) return;
+        StubData.TestState test = data.testState(call.param(1), call.param(2));
+        if (test == null) error(call, 404, "Test not found");
+        else json(call, 200, data.results(test));
+    }
+
+    private StubData.TestState activeTest(Call call) throws IOException {
+        if (!requireMember(call)) return null;
+        StubData.TestState test = data.testState(call.param(1), call.param(2));
+        if (test == null) {
+            error(call, 404, "Test not found");
+            return null;
+        }
+        if (!"ACTIVE".equals(test.status)) {
+            error(call, 400, "Test is not active");
+            return null;
+        }
+        if (test.submitted.contains(call.username())) {
+            error(call, 400, "Test already submitted");
+            return null;
+        }
+        return test;
+    }
+
+    private void getActiveTest(Call call) throws IOException {
+        Test test = data.activeTestFor(call.username());
+        if (test == null) empty(call, 204);
+        else json(call, 200, test);
+    }
+
+    // --- helpers ---
+
+    private boolean requireMember(Call call) throws IOException {
+        String code = call.param(1);
+        if (data.classroom(code) == null) {
+            error(call, 404, "Classroom not found");
+            return false;
+        }
+        if (!data.canAccess(code, call.username()) && !isAdmin(call.username())) {
+            error(call, 403, "Not a member of this classroom");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean requireOwner(Call call) throws IOException {
+        if (!requireMember(call)) return false;
+        if (!data.isOwner(call.param(1), call.username()) && !isAdmin(call.username())) {
+            error(call, 403, "Only the classroom teacher can do this");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isAdmin(String username) {
+        User user = data.user(username);
+        return user != null && "ROLE_ADMIN".equals(user.role());
+    }
+
+    private String sessionUser(HttpExchange exchange) {
+        String token = sessionToken(exchange);
+        return token != null ? sessions.get(token) : null;
+    }
+
+    private static String sessionToken(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies == null) return null;
+        for (String header : cookies) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) return pair[1];
+            }
+        }
+        return null;
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv[0].equals(name)) return kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "";
+        }
+        return null;
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        boolean gzipped = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream in = gzipped ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private <T> T readJson(Call call, Class<T> type) throws IOException {
+        return readJson(call, TypeToken.get(type));
+    }
+
+    private <T> T readJson(Call call, TypeToken<T> type) throws IOException {
+        try {
+            return gson.fromJson(new String(readBody(call.exchange()), StandardCharsets.UTF_8), type);
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+
+    private void json(Call call, int status, Object body) throws IOException {
+        call.exchange().getResponseHeaders().add("Content-Type", "application/json");
+        send(call.exchange(), call.faults(), status, gson.toJson(body).getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    private void empty(Call call, int status) throws IOException {
+        call.exchange().sendResponseHeaders(status, -1);
+        call.exchange().close();
+    }
+
+    private void error(Call call, int status, String message) throws IOException {
+        error(call.exchange(), call.faults(), status, message);
+    }
+
+    private void error(HttpExchange exchange, FaultProfile profile, int status, String message) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        send(exchange, profile, status, gson.toJson(new ApiError(message)).getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    private void send(HttpExchange exchange, FaultProfile profile, int status, byte[] body, boolean compressible) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzipResponses && compressible && body.length >= GZIP_MIN_BYTES && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            long bytesPerSecond = profile.bytesPerSecond();
+            if (bytesPerSecond <= 0) {
+                out.write(body);
+                return;
+            }
+            // Trickle the body out in ~50 ms slices to hold the cap
+            int chunk = (int) Math.max(512, bytesPerSecond / 20);
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                int length = Math.min(chunk, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                sleep(length * 1000L / bytesPerSecond);
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        StubData data = StubData.fromFixtures();
+        int students = Integer.getInteger("stub.students", 0);
+        if (students > 0) data.generateStudents("PHY101", students);
+
+        StubServer stub = start(Integer.getInteger("stub.port", 8080), data, FaultProfile.fromSystemProperties(),
+                Boolean.getBoolean("stub.gzip"));
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Stub server listening on " + stub.getBaseUrl() + " (faults: " + stub.getFaults() + ")");
+        System.out.println("Log in as teacher, alice, bob or carol with password '" + StubData.DEFAULT_PASSWORD + "'"
+                + (students > 0 ? ", or student00001..student" + String.format("%05d", students) : ""));
+    }
+}
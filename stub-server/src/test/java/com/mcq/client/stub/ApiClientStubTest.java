@@ -0,0 +1,141 @@
+package com.mcq.client.stub;
+
+import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The real client against the stub backend: breaker recovery, request
+ * coalescing and releasing status streams.
+ */
+class ApiClientStubTest {
+
+    private static final String CLASSROOM = "PHY101";
+    private static final String TEST = "midterm";
+
+    private StubServer stub;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        System.setProperty("api.breaker.failure.threshold", "2");
+        System.setProperty("api.breaker.open.ms", "300");
+        System.setProperty("api.retry.max.attempts", "1");
+        System.setProperty("api.retry.base.ms", "10");
+        System.setProperty("api.retry.budget.ms", "100");
+        System.setProperty("api.cache.tests.ttl.seconds", "0");
+        stub = StubServer.start(0, StubData.fromFixtures(), FaultProfile.none(), false);
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+        httpClient.close();
+        for (String key : List.of("api.breaker.failure.threshold", "api.breaker.open.ms", "api.retry.max.attempts",
+                "api.retry.base.ms", "api.retry.budget.ms", "api.cache.tests.ttl.seconds")) {
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    void breakerRecoversThroughHalfOpenProbe() throws Exception {
+        ApiClient api = session("bob");
+        stub.setFaults(FaultProfile.none().withErrors(1.0, 500, 0).onPaths("/api/classrooms/.*"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(Exception.class, () -> api.getTest(CLASSROOM, TEST));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, onlyBreakerState(api));
+
+        long requestsBefore = stub.getRequestCount();
+        assertThrows(Exception.class, () -> api.getTest(CLASSROOM, TEST));
+        assertEquals(requestsBefore, stub.getRequestCount(), "an open breaker fails fast without calling the server");
+
+        stub.setFaults(FaultProfile.none());
+        Thread.sleep(350);
+        assertEquals(TEST, api.getTest(CLASSROOM, TEST).testname());
+        assertEquals(CircuitBreaker.State.CLOSED, onlyBreakerState(api));
+    }
+
+    @Test
+    void callersWaitingOnAProbeFollowItsOutcome() throws Exception {
+        System.setProperty("api.retry.budget.ms", "5000");
+        System.setProperty("api.breaker.open.ms", "1000");
+        ApiClient api = session("bob");
+        stub.setFaults(FaultProfile.none().withErrors(1.0, 500, 0).onPaths("/api/classrooms/.*"));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(Exception.class, () -> api.getTest(CLASSROOM, TEST));
+        }
+
+        // The probe is slow; everyone else should go as soon as it succeeds, not after another open period
+        stub.setFaults(FaultProfile.none().withLatency(200, 0).onPaths("/api/classrooms/.*"));
+        Thread.sleep(1050);
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> calls = List.of(
+                api.getTestAsync(CLASSROOM, TEST),
+                api.getTestsAsync(CLASSROOM),
+                api.getClassroomAsync(CLASSROOM),
+                api.getTestAsync(CLASSROOM, "quiz1"));
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 800, "took " + elapsedMillis + " ms");
+        assertEquals(CircuitBreaker.State.CLOSED, onlyBreakerState(api));
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneRequest() throws Exception {
+        ApiClient api = session("bob");
+        stub.setFaults(FaultProfile.none().withLatency(200, 0).onPaths("/api/classrooms/.*"));
+
+        long requestsBefore = stub.getRequestCount();
+        List<CompletableFuture<com.mcq.client.lib.Models.Test>> calls = List.of(
+                api.getTestAsync(CLASSROOM, TEST), api.getTestAsync(CLASSROOM, TEST), api.getTestAsync(CLASSROOM, TEST));
+        for (CompletableFuture<com.mcq.client.lib.Models.Test> call : calls) {
+            assertEquals(TEST, call.get(5, TimeUnit.SECONDS).testname());
+        }
+        assertEquals(requestsBefore + 1, stub.getRequestCount());
+        assertEquals(2L, api.getCoalescedCallCounts().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void statusStreamIsReleasedWhenStoppedBeforeItConnects() throws Exception {
+        ApiClient student = session("bob");
+        ApiClient teacher = session("teacher");
+        stub.setFaults(FaultProfile.none().withLatency(300, 0).onPaths(".*/events"));
+
+        CompletableFuture<Void> subscription = student.subscribeTestStatus(CLASSROOM, TEST, status -> {});
+        Thread.sleep(50);
+        subscription.cancel(true);
+        Thread.sleep(600);
+
+        // Status changes are written to every subscriber; one the client has dropped is noticed and removed
+        for (int i = 0; i < 3 && stub.getStatusSubscriberCount() > 0; i++) {
+            teacher.endTest(CLASSROOM, TEST);
+            teacher.startTest(CLASSROOM, TEST);
+            Thread.sleep(100);
+        }
+        assertEquals(0, stub.getStatusSubscriberCount());
+    }
+
+    private ApiClient session(String username) throws Exception {
+        ApiClient api = ApiClient.newSession(stub.getBaseUrl(), httpClient);
+        api.login(username, StubData.DEFAULT_PASSWORD);
+        return api;
+    }
+
+    private static CircuitBreaker.State onlyBreakerState(ApiClient api) {
+        assertEquals(1, api.getCircuitBreakerStates().size());
+        return api.getCircuitBreakerStates().values().iterator().next();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mcq.client.swarm;
+
+import java.util.Random;
+
+/**
+ * When each simulated student opens the app, in milliseconds from the start
+ * of the run.
+ */
+final class ArrivalSchedule {
+
+    private ArrivalSchedule() {}
+
+    static long[] offsets(SwarmConfig config, Random random) {
+        long[] offsets = new long[config.students()];
+        long ramp = Math.max(1, config.rampMillis());
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = switch (config.arrival()) {
+                case INSTANT -> 0;
+                case LINEAR -> ramp * i / offsets.length;
+                // Exponential with a mean of a tenth of the ramp: ~63% arrive in the first 10%, a few stragglers near the end
+                case EXAM_START -> Math.min(ramp, (long) (-Math.log(1 - random.nextDouble()) * ramp / 10));
+            };
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mcq.client.swarm;
+
+import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.Models.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One student sitting the exam: log in, find the active test, load it and
+ * its PDF, answer questions while autosaving on the client's debounce
+ * cadence, then submit when done or when the exam ends. Saves send what
+ * AnswerAutosaver would: only the changed answers while delta saves are
+ * available, otherwise the full list.
+ */
+final class SimulatedStudent implements Runnable {
+
+    private static final String[] OPTIONS = {"A", "B", "C", "D"};
+
+    private final ApiClient api;
+    private final String username;
+    private final SwarmConfig config;
+    private final SwarmReport report;
+    private final long startAtNanos;
+    private final long examEndNanos;
+    private final BitSet unsaved = new BitSet();
+    private long version = 0;
+
+    SimulatedStudent(ApiClient api, String username, SwarmConfig config, SwarmReport report, long startAtNanos, long examEndNanos) {
+        this.api = api;
+        this.username = username;
+        this.config = config;
+        this.report = report;
+        this.startAtNanos = startAtNanos;
+        this.examEndNanos = examEndNanos;
+    }
+
+    @Override
+    public void run() {
+        sleepUntil(startAtNanos);
+        report.active.incrementAndGet();
+        try {
+            report.time(Step.LOGIN, () -> {
+                api.login(username, config.password());
+                return null;
+            });
+            Test active = report.time(Step.ACTIVE_TEST, api::getActiveTestForStudent);
+            if (active == null) {
+                report.abandoned.increment();
+                return;
+            }
+            String code = active.classroom().code();
+            String testname = active.testname();
+            Test test = report.time(Step.GET_TEST, () -> api.getTest(code, testname));
+            report.time(Step.GET_PDF, () -> api.getTestPDF(code, testname));
+
+            List<String> answers = answer(code, testname, Math.max(1, test.questionCount()));
+            report.time(Step.SUBMIT, () -> {
+                api.submitTest(code, testname, answers);
+                return null;
+            });
+            report.submitted.increment();
+        } catch (Exception e) {
+            report.abandoned.increment();
+        } finally {
+            report.active.decrementAndGet();
+        }
+    }
+
+    private List<String> answer(String code, String testname, int questions) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Some students are quick, some take their time; the slow ones are still answering when the exam ends
+        double pace = 0.5 + random.nextDouble() * 1.5;
+        List<String> answers = new ArrayList<>(Collections.nCopies(questions, ""));
+        long unsavedSince = -1;
+
+        for (int q = 0; q < questions && System.nanoTime() < examEndNanos; q++) {
+            long think = (long) (-Math.log(1 - random.nextDouble()) * config.meanThinkMillis() * pace);
+            answers.set(q, OPTIONS[random.nextInt(OPTIONS.length)]);
+            unsaved.set(q);
+            long now = System.nanoTime();
+            if (unsavedSince < 0) unsavedSince = now;
+
+            // Same rule as AnswerAutosaver: save once clicks pause for the debounce, or when changes get too old
+            boolean overdue = (now - unsavedSince) / 1_000_000 >= config.autosaveMaxDelayMillis();
+            if (overdue || think >= config.autosaveDebounceMillis()) {
+                sleepUntil(Math.min(examEndNanos, now + (overdue ? 0 : config.autosaveDebounceMillis() * 1_000_000)));
+                save(code, testname, answers);
+                unsavedSince = -1;
+                sleepUntil(Math.min(examEndNanos, now + think * 1_000_000));
+            } else {
+                sleepUntil(Math.min(examEndNanos, now + think * 1_000_000));
+            }
+        }
+        return answers;
+    }
+
+    private void save(String code, String testname, List<String> answers) {
+        boolean delta = api.isDeltaSaveAvailable();
+        try {
+            report.time(Step.AUTOSAVE, () -> {
+                if (delta) {
+                    Map<Integer, String> changes = new LinkedHashMap<>();
+                    unsaved.stream().forEach(i -> changes.put(i, answers.get(i)));
+                    api.updateTestAnswersDelta(code, testname, changes, version + 1);
+                } else {
+                    api.updateTestAnswers(code, testname, List.copyOf(answers));
+                }
+                return null;
+            });
+            version++;
+            unsaved.clear();
+        } catch (Exception ignored) {
+            // Counted by the report; a real client keeps the answers and retries on the next change.
+            // A rejected delta is retried straight away as a full list, as AnswerAutosaver does
+            if (delta && !api.isDeltaSaveAvailable()) save(code, testname, answers);
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) return;
+        try {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
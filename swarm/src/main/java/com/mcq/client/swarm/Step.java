@@ -0,0 +1,11 @@
+package com.mcq.client.swarm;
+
+/** The calls a student makes during an exam, in order. */
+enum Step {
+    LOGIN,
+    ACTIVE_TEST,
+    GET_TEST,
+    GET_PDF,
+    AUTOSAVE,
+    SUBMIT
+}
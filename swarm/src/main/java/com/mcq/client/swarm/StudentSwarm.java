@@ -0,0 +1,79 @@
+package com.mcq.client.swarm;
+
+import com.mcq.client.lib.ApiClient;
+import com.mcq.client.lib.AppConfig;
+import com.mcq.client.lib.TransportConfig;
+import com.mcq.client.stub.FaultProfile;
+import com.mcq.client.stub.StubData;
+import com.mcq.client.stub.StubServer;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link SwarmConfig#students()} simulated students, one virtual thread
+ * each, through a full exam against a backend or an embedded stub server.
+ * Arrivals follow the configured pattern; students still working when the
+ * exam ends all submit at once, which is the end-of-exam herd.
+ */
+public class StudentSwarm {
+
+    public static void main(String[] args) throws Exception {
+        SwarmConfig config = SwarmConfig.fromSystemProperties();
+
+        StubServer stub = null;
+        String baseUrl = config.baseUrl();
+        if (config.embeddedStub()) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            StubData data = StubData.fromFixtures();
+            data.generateStudents(System.getProperty("swarm.stub.classroom", "PHY101"), config.students());
+            stub = StubServer.start(0, data, FaultProfile.fromSystemProperties(), Boolean.getBoolean("stub.gzip"));
+            baseUrl = stub.getBaseUrl();
+        }
+
+        System.out.printf("Swarm: %d students against %s, %s arrivals over %d s, exam ends after %d s%n",
+                config.students(), baseUrl, config.arrival(), config.rampMillis() / 1000, config.examMillis() / 1000);
+
+        SwarmReport report = new SwarmReport();
+        ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient httpClient = TransportConfig.from(AppConfig.getInstance()).newClientBuilder(clientExecutor).build();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "swarm-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        progress.scheduleAtFixedRate(() -> report.printProgress(config.reportEveryMillis() / 1000),
+                config.reportEveryMillis(), config.reportEveryMillis(), TimeUnit.MILLISECONDS);
+
+        long[] offsets = ArrivalSchedule.offsets(config, new Random(Long.getLong("swarm.seed", 42)));
+        long startNanos = System.nanoTime();
+        long examEndNanos = startNanos + config.examMillis() * 1_000_000;
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.students(); i++) {
+                String username = String.format(config.usernameFormat(), i + 1);
+                ApiClient api = ApiClient.newSession(baseUrl, httpClient);
+                students.execute(new SimulatedStudent(api, username, config, report,
+                        startNanos + offsets[i] * 1_000_000, examEndNanos));
+            }
+        }
+
+        progress.shutdownNow();
+        report.printSummary();
+        Path resultFile = Path.of(config.resultFile());
+        report.writeJson(config, resultFile);
+        System.out.println("Results written to " + resultFile.toAbsolutePath());
+
+        httpClient.close();
+        clientExecutor.shutdownNow();
+        if (stub != null) {
+            System.out.printf("Stub served %d requests%n", stub.getRequestCount());
+            stub.close();
+        }
+        System.exit(0);
+    }
+}
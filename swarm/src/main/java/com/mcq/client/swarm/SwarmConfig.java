@@ -0,0 +1,52 @@
+package com.mcq.client.swarm;
+
+import com.mcq.client.lib.AppConfig;
+
+/**
+ * Settings for one swarm run, read from swarm.* system properties. The
+ * autosave cadence comes from the client's own autosave settings so the
+ * simulated students save exactly as often as the real ones.
+ */
+public record SwarmConfig(
+        String baseUrl,
+        boolean embeddedStub,
+        int students,
+        String usernameFormat,
+        String password,
+        ArrivalPattern arrival,
+        long rampMillis,
+        long examMillis,
+        long meanThinkMillis,
+        long autosaveDebounceMillis,
+        long autosaveMaxDelayMillis,
+        long reportEveryMillis,
+        String resultFile
+) {
+
+    public enum ArrivalPattern {
+        /** Everyone at once, as when a teacher says "start now". */
+        INSTANT,
+        /** Evenly spread over the ramp. */
+        LINEAR,
+        /** Most students in the first seconds, with a tail of latecomers over the ramp. */
+        EXAM_START
+    }
+
+    public static SwarmConfig fromSystemProperties() {
+        AppConfig config = AppConfig.getInstance();
+        return new SwarmConfig(
+                System.getProperty("swarm.base.url", config.get("api.base.url", "http://localhost:8080")),
+                Boolean.getBoolean("swarm.stub"),
+                Integer.getInteger("swarm.students", 500),
+                System.getProperty("swarm.username.format", "student%05d"),
+                System.getProperty("swarm.password", "password"),
+                ArrivalPattern.valueOf(System.getProperty("swarm.arrival", "EXAM_START").toUpperCase()),
+                Long.getLong("swarm.ramp.seconds", 30) * 1000,
+                Long.getLong("swarm.exam.seconds", 120) * 1000,
+                Long.getLong("swarm.think.ms", 4000),
+                config.getLong("autosave.debounce.ms", 1000),
+                config.getLong("autosave.max.delay.ms", 5000),
+                Long.getLong("swarm.report.seconds", 5) * 1000,
+                System.getProperty("swarm.result.file", "swarm-result.json"));
+    }
+}
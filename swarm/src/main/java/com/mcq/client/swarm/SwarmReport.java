@@ -0,0 +1,125 @@
+package com.mcq.client.swarm;
+
+import com.google.gson.GsonBuilder;
+import com.mcq.client.lib.LatencyHistogram;
+import com.mcq.client.lib.Metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-step latency and errors plus a per-second completion timeline for
+ * throughput. Per-endpoint figures (including retries) come from the
+ * client's own {@link Metrics}.
+ */
+final class SwarmReport {
+
+    private static final int MAX_SECONDS = 6 * 3600;
+
+    private final Map<Step, LatencyHistogram> latency = new EnumMap<>(Step.class);
+    private final Map<Step, LongAdder> errors = new EnumMap<>(Step.class);
+    private final AtomicLongArray completedPerSecond = new AtomicLongArray(MAX_SECONDS);
+    private final long startNanos = System.nanoTime();
+
+    final AtomicInteger active = new AtomicInteger();
+    final LongAdder submitted = new LongAdder();
+    final LongAdder abandoned = new LongAdder();
+
+    SwarmReport() {
+        for (Step step : Step.values()) {
+            latency.put(step, new LatencyHistogram());
+            errors.put(step, new LongAdder());
+        }
+    }
+
+    <T> T time(Step step, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } catch (Exception e) {
+            errors.get(step).increment();
+            throw e;
+        } finally {
+            long end = System.nanoTime();
+            latency.get(step).recordNanos(end - start);
+            int second = (int) ((end - startNanos) / 1_000_000_000L);
+            if (second < MAX_SECONDS) completedPerSecond.incrementAndGet(second);
+        }
+    }
+
+    long elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000L;
+    }
+
+    void printProgress(long intervalSeconds) {
+        long now = elapsedSeconds();
+        long recent = 0;
+        for (long s = Math.max(0, now - intervalSeconds); s < now && s < MAX_SECONDS; s++) {
+            recent += completedPerSecond.get((int) s);
+        }
+        StringBuilder line = new StringBuilder(String.format("[%4ds] active=%-5d submitted=%-5d abandoned=%-4d %7.1f req/s |",
+                now, active.get(), submitted.sum(), abandoned.sum(), recent / (double) Math.max(1, intervalSeconds)));
+        for (Step step : Step.values()) {
+            LatencyHistogram.Summary summary = latency.get(step).summary();
+            if (summary.count() > 0) {
+                line.append(String.format(" %s p99=%.0fms", step.name().toLowerCase(), summary.p99Millis()));
+            }
+        }
+        System.out.println(line);
+    }
+
+    void printSummary() {
+        long seconds = Math.max(1, elapsedSeconds());
+        long total = 0;
+        long peak = 0;
+        for (int s = 0; s < Math.min(seconds + 1, MAX_SECONDS); s++) {
+            total += completedPerSecond.get(s);
+            peak = Math.max(peak, completedPerSecond.get(s));
+        }
+
+        System.out.println();
+        System.out.printf("%-12s %9s %7s %9s %9s %9s %9s %9s%n", "step", "calls", "errors", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Step step : Step.values()) {
+            LatencyHistogram.Summary s = latency.get(step).summary();
+            System.out.printf("%-12s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", step.name().toLowerCase(), s.count(),
+                    errors.get(step).sum(), s.meanMillis(), s.p50Millis(), s.p90Millis(), s.p99Millis(), s.maxMillis());
+        }
+        System.out.printf("%nThroughput: %.1f req/s average, %d req/s peak over %d s; %d submitted, %d abandoned%n",
+                total / (double) seconds, peak, seconds, submitted.sum(), abandoned.sum());
+    }
+
+    void writeJson(SwarmConfig config, Path file) throws IOException {
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Step step : Step.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("latency", latency.get(step).summary());
+            entry.put("errors", errors.get(step).sum());
+            steps.put(step.name().toLowerCase(), entry);
+        }
+        List<Long> timeline = new ArrayList<>();
+        for (int s = 0; s <= Math.min(elapsedSeconds(), MAX_SECONDS - 1); s++) {
+            timeline.add(completedPerSecond.get(s));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", config);
+        json.put("durationSeconds", elapsedSeconds());
+        json.put("submitted", submitted.sum());
+        json.put("abandoned", abandoned.sum());
+        json.put("steps", steps);
+        json.put("completedPerSecond", timeline);
+        json.put("endpoints", Metrics.getInstance().snapshot().endpoints());
+        Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(json), StandardCharsets.UTF_8);
+    }
+}